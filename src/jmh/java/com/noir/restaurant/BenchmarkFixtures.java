@@ -0,0 +1,110 @@
+package com.noir.restaurant;
+
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.domain.entities.OperatingHours;
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.domain.entities.TimeRange;
+import com.noir.restaurant.domain.entities.User;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic restaurants so every run of a suite measures the same documents
+public final class BenchmarkFixtures {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 12, 0);
+    // Default of app.reviews.latest-size
+    private static final int LATEST_REVIEWS = 5;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Restaurant restaurant(int reviewCount) {
+        SplittableRandom random = new SplittableRandom(reviewCount);
+
+        TimeRange hours = TimeRange.builder().openTime("11:30").closeTime("23:00").build();
+        List<Review> reviews = reviews(reviewCount, random);
+
+        return Restaurant.builder()
+                         .id("restaurant-" + reviewCount)
+                         .name("Benchmark Bistro")
+                         .cuisineType("Italian")
+                         .contactInformation("+44 20 7946 0000")
+                         .averageRating(0f)
+                         .geoLocation(new GeoPoint(51.5072, -0.1276))
+                         .address(Address.builder()
+                                         .streetNumber("12")
+                                         .streetName("Dean Street")
+                                         .city("London")
+                                         .postalCode("W1D 3RH")
+                                         .country("United Kingdom")
+                                         .build())
+                         .operatingHours(OperatingHours.builder()
+                                                       .monday(hours)
+                                                       .tuesday(hours)
+                                                       .wednesday(hours)
+                                                       .thursday(hours)
+                                                       .friday(hours)
+                                                       .saturday(hours)
+                                                       .sunday(hours)
+                                                       .build())
+                         .photos(new ArrayList<>(List.of(photo("restaurant-" + reviewCount))))
+                         .reviews(reviews)
+                         .latestReviews(latestReviews(reviews))
+                         .totalReviews(reviews.size())
+                         .createdBy(user("owner"))
+                         .build();
+    }
+
+    // Written in posting order, which is how reviews come back from the index
+    private static List<Review> reviews(int count, SplittableRandom random) {
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime posted = EPOCH.plusMinutes(i * 17L + random.nextInt(17));
+            reviews.add(Review.builder()
+                              .id("review-" + i)
+                              .content("Review " + i + ": the pasta was fresh and the service quick.")
+                              .rating(1 + random.nextInt(5))
+                              .datePosted(posted)
+                              .lastEdited(posted)
+                              .photos(i % 4 == 0 ? new ArrayList<>(List.of(photo("review-" + i)))
+                                                 : new ArrayList<>())
+                              .writtenBy(user("user-" + i))
+                              .build());
+        }
+        return reviews;
+    }
+
+    // What RestaurantDetails.updateLatestReviews stores, posting order makes the tail the newest
+    private static List<Review> latestReviews(List<Review> reviews) {
+        List<Review> latest = new ArrayList<>(reviews.subList(
+                Math.max(0, reviews.size() - LATEST_REVIEWS), reviews.size()));
+        Collections.reverse(latest);
+        return latest;
+    }
+
+    private static Photo photo(String owner) {
+        return Photo.builder()
+                    .url(owner + ".jpg")
+                    .uploadDate(EPOCH)
+                    .width(1024)
+                    .height(768)
+                    .placeholder("data:image/jpeg;base64,/9j/4AAQSkZJRgABAQ")
+                    .build();
+    }
+
+    private static User user(String id) {
+        return User.builder()
+                   .id(id)
+                   .username(id)
+                   .givenName("Given " + id)
+                   .familyName("Family " + id)
+                   .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.noir.restaurant.domain.dtos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noir.restaurant.BenchmarkFixtures;
+import com.noir.restaurant.mappers.RestaurantMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestaurantDtoSerializationBenchmark {
+
+    // Only totalReviews follows the count, the DTO carries the latest reviews whatever it is
+    @Param({"10", "1000", "10000"})
+    private int reviewCount;
+
+    private ObjectMapper objectMapper;
+
+    private RestaurantDto restaurantDto;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot hands to the message converters
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        restaurantDto = new RestaurantMapperImpl()
+                .toRestaurantDto(BenchmarkFixtures.restaurant(reviewCount));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(restaurantDto);
+    }
+}
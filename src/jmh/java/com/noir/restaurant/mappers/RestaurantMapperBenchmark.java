@@ -0,0 +1,52 @@
+package com.noir.restaurant.mappers;
+
+import com.noir.restaurant.BenchmarkFixtures;
+import com.noir.restaurant.domain.dtos.RestaurantDto;
+import com.noir.restaurant.domain.dtos.RestaurantSummaryDto;
+import com.noir.restaurant.domain.entities.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestaurantMapperBenchmark {
+
+    // Sizes the entity only, the DTO carries the latest reviews whatever the count
+    @Param({"10", "1000", "10000"})
+    private int reviewCount;
+
+    private RestaurantMapper restaurantMapper;
+
+    private Restaurant restaurant;
+
+    @Setup
+    public void setUp() {
+        restaurantMapper = new RestaurantMapperImpl();
+        restaurant = BenchmarkFixtures.restaurant(reviewCount);
+    }
+
+    @Benchmark
+    public RestaurantDto toRestaurantDto() {
+        return restaurantMapper.toRestaurantDto(restaurant);
+    }
+
+    @Benchmark
+    public RestaurantSummaryDto toSummaryDto() {
+        return restaurantMapper.toSummaryDto(restaurant);
+    }
+}
@@ -0,0 +1,100 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.StoredFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileSystemStorageServiceBenchmark {
+
+    private static final byte[] JPEG_HEADER = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+
+    @Param({"65536", "1048576", "8388608"})
+    private int photoBytes;
+
+    private Path storageDirectory;
+
+    private FileSystemStorageService storageService;
+
+    private byte[] photo;
+
+    private MockMultipartFile multipartPhoto;
+
+    private String storedFileName;
+
+    @Setup
+    public void setUp() throws IOException {
+        storageDirectory = Files.createTempDirectory("storage-benchmark");
+
+        storageService = new FileSystemStorageService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(storageService, "storageLocation", storageDirectory.toString());
+        ReflectionTestUtils.setField(storageService, "maxFileSize", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(storageService, "maxConcurrentUploads", 8);
+        ReflectionTestUtils.setField(storageService, "uploadPermitTimeout", Duration.ofSeconds(2));
+        storageService.init();
+
+        photo = new byte[photoBytes];
+        new SplittableRandom(photoBytes).nextBytes(photo);
+        System.arraycopy(JPEG_HEADER, 0, photo, 0, JPEG_HEADER.length);
+        multipartPhoto = new MockMultipartFile("file", "photo.jpg", "image/jpeg", photo);
+
+        storedFileName = storageService
+                .store(new ByteArrayInputStream(photo), "stored", photo.length)
+                .getFileName();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(storageDirectory);
+    }
+
+    // Same target name every time, the rename replaces the previous file
+    @Benchmark
+    public StoredFile storeStream() {
+        return storageService.store(new ByteArrayInputStream(photo), "upload", photo.length);
+    }
+
+    @Benchmark
+    public String storeMultipart() {
+        return storageService.store(multipartPhoto, "multipart");
+    }
+
+    @Benchmark
+    public Resource loadAsResource() {
+        return storageService.loadAsResource(storedFileName).orElseThrow();
+    }
+
+    // What a photo download costs end to end, callers always read the whole file
+    @Benchmark
+    public byte[] loadAndRead() throws IOException {
+        return storageService.loadAsResource(storedFileName).orElseThrow().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,77 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.BenchmarkFixtures;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewServiceBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int reviewCount;
+
+    @Param({"unsorted", "datePosted", "rating"})
+    private String sort;
+
+    private ReviewServiceImpl reviewService;
+
+    private List<Review> reviews;
+
+    private Restaurant restaurant;
+
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        // Only the in-memory parts are measured, nothing here reaches the collaborators
+        reviewService = new ReviewServiceImpl(null, null, null, null, null);
+        restaurant = BenchmarkFixtures.restaurant(reviewCount);
+        reviews = restaurant.getReviews();
+        pageable = "unsorted".equals(sort)
+                ? PageRequest.of(0, 20)
+                : PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, sort));
+    }
+
+    // listReviews sorts in place, so each call gets the list as it would arrive from the index
+    @Benchmark
+    public Page<Review> listReviews() {
+        restaurant.setReviews(new ArrayList<>(reviews));
+        return reviewService.listReviews(restaurant, pageable);
+    }
+
+    // Baseline for the copy above, subtract it from listReviews
+    @Benchmark
+    public List<Review> copyReviews() {
+        return new ArrayList<>(reviews);
+    }
+
+    @Benchmark
+    public Float updateRestaurantAverageRating() {
+        reviewService.updateRestaurantAverageRating(restaurant);
+        return restaurant.getAverageRating();
+    }
+}
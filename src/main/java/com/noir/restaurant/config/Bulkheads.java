@@ -0,0 +1,123 @@
+package com.noir.restaurant.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/*
+ * Separate bounded pools for photo I/O, searches and writes, so one slow subsystem can only use
+ * up its own threads. The Tomcat thread hands the request over and returns at once. A full pool
+ * answers 503 (TaskRejectedException) and a task that overruns its timeout answers 503
+ * (AsyncRequestTimeoutException). The pools are kept out of the context on purpose: an Executor
+ * bean would replace Boot's applicationTaskExecutor. With spring.threads.virtual.enabled the same
+ * limits hold, but each task runs on its own virtual thread.
+ *
+ * A timeout only cancels a task that has not started. A write already on its way to
+ * Elasticsearch cannot be called back, so a 503 from a write endpoint does not mean nothing was
+ * written.
+ */
+@Component
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class Bulkheads {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private Bulkhead photo;
+    private Bulkhead search;
+    private Bulkhead write;
+
+    @PostConstruct
+    public void init() {
+        photo = create("photo", 16, 100, Duration.ofSeconds(30));
+        search = create("search", 32, 200, Duration.ofSeconds(10));
+        write = create("write", 16, 100, Duration.ofSeconds(15));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Bulkhead bulkhead : List.of(photo, search, write)) {
+            if (bulkhead.executor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    public Bulkhead photo() {
+        return photo;
+    }
+
+    public Bulkhead search() {
+        return search;
+    }
+
+    public Bulkhead write() {
+        return write;
+    }
+
+    private Bulkhead create(String name, int defaultThreads, int defaultQueueCapacity,
+                            Duration defaultTimeout) {
+        String prefix = "app.bulkheads." + name + ".";
+        int threads = environment.getProperty(prefix + "threads", Integer.class, defaultThreads);
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class,
+                                                    defaultQueueCapacity);
+        Duration timeout = environment.getProperty(prefix + "timeout", Duration.class, defaultTimeout);
+
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            VirtualThreadBulkheadExecutor executor =
+                    new VirtualThreadBulkheadExecutor(name, threads, queueCapacity);
+
+            // Same names and tags the pooled bulkheads report
+            Tags tags = Tags.of("name", "bulkhead-" + name, "bulkhead", name);
+            Gauge.builder("executor.active", executor, VirtualThreadBulkheadExecutor::getActive)
+                 .tags(tags)
+                 .register(meterRegistry);
+            Gauge.builder("executor.queued", executor, VirtualThreadBulkheadExecutor::getQueued)
+                 .tags(tags)
+                 .register(meterRegistry);
+            return new Bulkhead(executor, timeout);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulkhead-" + name + "-");
+        executor.initialize();
+
+        // executor.active, executor.queued, executor.completed and friends, tagged by bulkhead
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "bulkhead-" + name,
+                                   Tags.of("bulkhead", name)).bindTo(meterRegistry);
+        return new Bulkhead(executor, timeout);
+    }
+
+    public static final class Bulkhead {
+
+        private final AsyncTaskExecutor executor;
+        private final Duration timeout;
+
+        private Bulkhead(AsyncTaskExecutor executor, Duration timeout) {
+            this.executor = executor;
+            this.timeout = timeout;
+        }
+
+        public <T> WebAsyncTask<T> run(Callable<T> task) {
+            return new WebAsyncTask<>(timeout.toMillis(), executor, task);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.noir.restaurant.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+
+/*
+ * Clients reuse a token until it expires, so the signature of a token is only checked the first
+ * time it is seen. The validator (expiry, not-before, issuer) still runs on every decode, since a
+ * cached token can expire between requests.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final OAuth2TokenValidator<Jwt> validator;
+    private final Duration maxTimeToLive;
+    private final Cache<String, VerifiedToken> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, OAuth2TokenValidator<Jwt> validator, long maximumSize,
+                             Duration maxTimeToLive, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.validator = validator;
+        this.maxTimeToLive = maxTimeToLive;
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maximumSize)
+                             .expireAfter(Expiry.creating((String key, VerifiedToken token) ->
+                                                                  timeToLive(token.expiresAt())))
+                             .recordStats()
+                             .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        // Keyed by hash and holding only headers and claims, so the cache never holds bearer tokens
+        String key = hash(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached == null) {
+            Jwt jwt = delegate.decode(token);
+            cache.put(key, new VerifiedToken(jwt.getHeaders(), jwt.getClaims(), jwt.getIssuedAt(),
+                                             jwt.getExpiresAt()));
+            return jwt;
+        }
+
+        Jwt jwt = new Jwt(token, cached.issuedAt(), cached.expiresAt(), cached.headers(), cached.claims());
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        if (result.hasErrors()) {
+            cache.invalidate(key);
+            String description = result.getErrors().stream()
+                                       .map(OAuth2Error::getDescription)
+                                       .filter(error -> error != null && !error.isEmpty())
+                                       .findFirst()
+                                       .orElse("Unable to validate Jwt");
+            throw new JwtValidationException("An error occurred while attempting to decode the Jwt: "
+                                                     + description, result.getErrors());
+        }
+        return jwt;
+    }
+
+    private Duration timeToLive(Instant expiresAt) {
+        if (expiresAt == null) {
+            return maxTimeToLive;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(maxTimeToLive) < 0 ? remaining : maxTimeToLive;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(Map<String, Object> headers, Map<String, Object> claims,
+                                 Instant issuedAt, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.noir.restaurant.config;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.elasticsearch.RestClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+/*
+ * Sizes the Elasticsearch HTTP client instead of leaving it at the library defaults (30
+ * connections, 10 per route, no compression). Connect and socket timeouts for operations that are
+ * neither searches nor writes still come from spring.elasticsearch.connection-timeout and
+ * spring.elasticsearch.socket-timeout.
+ */
+@Configuration
+@Profile("!in-memory")
+public class ElasticsearchTransportConfig {
+
+    @Value("${app.elasticsearch.max-connections-per-route:32}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.elasticsearch.max-connections-total:64}")
+    private int maxConnectionsTotal;
+
+    // Under the idle timeout of anything between us and the cluster
+    @Value("${app.elasticsearch.keep-alive:60s}")
+    private Duration keepAlive;
+
+    // Zero is one I/O thread per core
+    @Value("${app.elasticsearch.io-thread-count:0}")
+    private int ioThreadCount;
+
+    // Gzips request bodies and asks for gzipped responses
+    @Value("${app.elasticsearch.compression:true}")
+    private boolean compression;
+
+    // How long a request waits for a pooled connection before failing
+    @Value("${app.elasticsearch.pool-timeout:2s}")
+    private Duration poolTimeout;
+
+    @Value("${app.elasticsearch.search.connect-timeout:1s}")
+    private Duration searchConnectTimeout;
+
+    @Value("${app.elasticsearch.search.socket-timeout:10s}")
+    private Duration searchSocketTimeout;
+
+    @Value("${app.elasticsearch.write.connect-timeout:1s}")
+    private Duration writeConnectTimeout;
+
+    @Value("${app.elasticsearch.write.socket-timeout:30s}")
+    private Duration writeSocketTimeout;
+
+    // The REST client owns the pool and shuts it down on close
+    @Bean(destroyMethod = "")
+    public PoolingNHttpClientConnectionManager elasticsearchConnectionManager(MeterRegistry meterRegistry)
+            throws IOReactorException {
+        IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom().setSoKeepAlive(true);
+        if (ioThreadCount > 0) {
+            ioReactorConfig.setIoThreadCount(ioThreadCount);
+        }
+
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(ioReactorConfig.build()));
+        connectionManager.setMaxTotal(maxConnectionsTotal);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        registerPoolGauge(meterRegistry, connectionManager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, "pending", PoolStats::getPending);
+        Gauge.builder("elasticsearch.client.connections.max", connectionManager,
+                      manager -> manager.getTotalStats().getMax())
+             .description("Maximum size of the Elasticsearch client connection pool")
+             .register(meterRegistry);
+        return connectionManager;
+    }
+
+    // With our own connection manager the builder's pool and I/O settings no longer apply
+    @Bean
+    public RestClientBuilderCustomizer elasticsearchTransportCustomizer(
+            PoolingNHttpClientConnectionManager elasticsearchConnectionManager) {
+        return new RestClientBuilderCustomizer() {
+
+            @Override
+            public void customize(RestClientBuilder builder) {
+                builder.setCompressionEnabled(compression);
+            }
+
+            @Override
+            public void customize(HttpAsyncClientBuilder builder) {
+                builder.setConnectionManager(elasticsearchConnectionManager);
+                builder.setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis())
+                                               : keepAlive.toMillis();
+                });
+            }
+
+            @Override
+            public void customize(RequestConfig.Builder builder) {
+                builder.setConnectionRequestTimeout((int) poolTimeout.toMillis());
+            }
+        };
+    }
+
+    // Replaces Boot's transport, which it only creates when there is none
+    @Bean
+    public ElasticsearchTransport elasticsearchTransport(RestClient restClient, JsonpMapper jsonpMapper) {
+        return new OperationTimeoutTransport(
+                new RestClientTransport(restClient, jsonpMapper),
+                requestConfig(searchConnectTimeout, searchSocketTimeout),
+                requestConfig(writeConnectTimeout, writeSocketTimeout));
+    }
+
+    // A per-request config replaces the client default as a whole, so the pool timeout goes in too
+    private RequestConfig requestConfig(Duration connectTimeout, Duration socketTimeout) {
+        return RequestConfig.custom()
+                            .setConnectTimeout((int) connectTimeout.toMillis())
+                            .setSocketTimeout((int) socketTimeout.toMillis())
+                            .setConnectionRequestTimeout((int) poolTimeout.toMillis())
+                            .build();
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry,
+                                          PoolingNHttpClientConnectionManager connectionManager,
+                                          String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder("elasticsearch.client.connections", connectionManager,
+                      manager -> value.applyAsInt(manager.getTotalStats()))
+             .tag("state", state)
+             .description("Connections in the Elasticsearch client pool")
+             .register(meterRegistry);
+    }
+}
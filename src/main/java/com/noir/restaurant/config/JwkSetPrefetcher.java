@@ -0,0 +1,42 @@
+package com.noir.restaurant.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+// Fetches the issuer's signing keys at startup and on a timer, a failed refresh keeps the last good set
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Lazy(false)
+@Profile("!reactive")
+public class JwkSetPrefetcher {
+
+    private final Cache jwkSetCache;
+
+    private final RestClient restClient = RestClient.create();
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Scheduled(initialDelay = 0,
+            fixedDelayString = "${app.security.jwks-refresh-interval:5m}")
+    public void refresh() {
+        try {
+            String jwkSet = restClient.get().uri(jwkSetUri).retrieve().body(String.class);
+            if (jwkSet != null) {
+                jwkSetCache.put(jwkSetUri, jwkSet);
+                log.debug("Refreshed JWK set from {}", jwkSetUri);
+            }
+        } catch (RestClientException e) {
+            log.warn("Failed to refresh JWK set from {}", jwkSetUri, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.noir.restaurant.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/*
+ * Up once JwkSetPrefetcher has cached the signing keys, so the first authenticated request never
+ * fetches them. Only the fast-startup readiness group needs it, elsewhere an unreachable issuer
+ * would turn the whole health endpoint to 503.
+ */
+@Component
+@RequiredArgsConstructor
+@Profile("fast-startup & !reactive")
+public class JwksHealthIndicator implements HealthIndicator {
+
+    private final Cache jwkSetCache;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Override
+    public Health health() {
+        Health.Builder health = jwkSetCache.get(jwkSetUri) != null ? Health.up() : Health.outOfService();
+        return health.withDetail("jwkSetUri", jwkSetUri).build();
+    }
+}
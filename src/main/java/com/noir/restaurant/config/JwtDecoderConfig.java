@@ -0,0 +1,53 @@
+package com.noir.restaurant.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+
+@Configuration
+@Profile("!reactive")
+public class JwtDecoderConfig {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Value("${app.security.jwt-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.security.jwt-cache.max-ttl:10m}")
+    private Duration maxTimeToLive;
+
+    // Holds the raw JWK set, kept warm by JwkSetPrefetcher so no request waits on the issuer
+    @Bean
+    public Cache jwkSetCache() {
+        return new ConcurrentMapCache("jwks");
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(Cache jwkSetCache, MeterRegistry meterRegistry) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder
+                .withJwkSetUri(jwkSetUri)
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .cache(jwkSetCache)
+                .build();
+        OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefaultWithIssuer(issuerUri);
+        decoder.setJwtValidator(validator);
+
+        return new CachingJwtDecoder(decoder, validator, maxSize, maxTimeToLive, meterRegistry);
+    }
+}
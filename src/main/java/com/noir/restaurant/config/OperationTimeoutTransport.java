@@ -0,0 +1,82 @@
+package com.noir.restaurant.config;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.rest_client.RestClientOptions;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import org.apache.http.client.config.RequestConfig;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * Gives reads and writes their own connect and socket timeouts on the one shared client. The
+ * operation is known from the endpoint id, so the timeouts ride along as per-request options and
+ * anything unlisted keeps the client defaults.
+ */
+public class OperationTimeoutTransport implements ElasticsearchTransport {
+
+    private static final Set<String> SEARCH_ENDPOINTS = Set.of(
+            "es/search", "es/msearch", "es/scroll", "es/count", "es/get", "es/mget",
+            "es/open_point_in_time");
+    private static final Set<String> WRITE_ENDPOINTS = Set.of(
+            "es/index", "es/create", "es/update", "es/delete", "es/bulk", "es/update_by_query",
+            "es/delete_by_query");
+
+    private final RestClientTransport delegate;
+    private final RequestConfig searchRequestConfig;
+    private final RequestConfig writeRequestConfig;
+
+    public OperationTimeoutTransport(RestClientTransport delegate, RequestConfig searchRequestConfig,
+                                     RequestConfig writeRequestConfig) {
+        this.delegate = delegate;
+        this.searchRequestConfig = searchRequestConfig;
+        this.writeRequestConfig = writeRequestConfig;
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> ResponseT performRequest(
+            RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options)
+            throws IOException {
+        return delegate.performRequest(request, endpoint, withTimeouts(endpoint, options));
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+            RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+        return delegate.performRequestAsync(request, endpoint, withTimeouts(endpoint, options));
+    }
+
+    @Override
+    public JsonpMapper jsonpMapper() {
+        return delegate.jsonpMapper();
+    }
+
+    @Override
+    public TransportOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private TransportOptions withTimeouts(Endpoint<?, ?, ?> endpoint, TransportOptions options) {
+        RequestConfig requestConfig = SEARCH_ENDPOINTS.contains(endpoint.id()) ? searchRequestConfig
+                : WRITE_ENDPOINTS.contains(endpoint.id()) ? writeRequestConfig
+                : null;
+        TransportOptions base = options == null ? delegate.options() : options;
+        if (requestConfig == null || !(base instanceof RestClientOptions restClientOptions)) {
+            return options;
+        }
+
+        // Caller options win for everything but the request config
+        RestClientOptions.Builder builder = restClientOptions.toBuilder();
+        builder.restClientRequestOptionsBuilder().setRequestConfig(requestConfig);
+        return builder.build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.noir.restaurant.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+// The reactive profile only serves public reads, every other request is refused
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    // Networks the Prometheus scraper connects from, metrics are not served to anyone else
+    @Value("${app.metrics.scraper-addresses:127.0.0.1/32,::1/128}")
+    private List<String> scraperAddresses;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(HttpMethod.GET, "/api/photos/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/restaurants/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/actuator/prometheus").access((authentication, context) ->
+                                Mono.just(new AuthorizationDecision(isScraper(context.getExchange()))))
+                        .anyExchange().denyAll())
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .build();
+    }
+
+    private boolean isScraper(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return false;
+        }
+        String address = remoteAddress.getAddress().getHostAddress();
+        return scraperAddresses.stream().anyMatch(range -> new IpAddressMatcher(range).matches(address));
+    }
+}
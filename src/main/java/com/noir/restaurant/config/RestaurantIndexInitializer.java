@@ -0,0 +1,59 @@
+package com.noir.restaurant.config;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+ * Creates the restaurant index with its mapping if it is missing. Runners finish before the
+ * application reports ready, so no traffic arrives until the cluster has answered, while the
+ * context itself refreshes without a connection (which is what the CDS training run needs).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Profile("!in-memory")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RestaurantIndexInitializer implements ApplicationRunner {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Value("${app.startup.elasticsearch-timeout:2m}")
+    private Duration timeout;
+
+    @Value("${app.startup.elasticsearch-retry-interval:2s}")
+    private Duration retryInterval;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(Restaurant.class);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            try {
+                if (!indexOperations.exists()) {
+                    indexOperations.createWithMapping();
+                    log.info("Created index {}", indexOperations.getIndexCoordinates().getIndexName());
+                }
+                return;
+            } catch (DataAccessException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Elasticsearch not reachable after " + timeout, e);
+                }
+                log.warn("Elasticsearch not ready yet, retrying in {}: {}", retryInterval, e.getMessage());
+                Thread.sleep(retryInterval.toMillis());
+            }
+        }
+    }
+}
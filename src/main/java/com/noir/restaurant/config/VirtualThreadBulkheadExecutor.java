@@ -0,0 +1,62 @@
+package com.noir.restaurant.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Bulkhead for virtual threads, bounded like the pooled ones: at most `concurrency` tasks run at
+ * once and at most `queueCapacity` more wait their turn, anything beyond that is rejected. Every
+ * task gets its own virtual thread, a waiting one parks on the semaphore instead of a queue.
+ */
+final class VirtualThreadBulkheadExecutor implements AsyncTaskExecutor {
+
+    private final String name;
+    private final int concurrency;
+    private final int capacity;
+    private final ThreadFactory threadFactory;
+
+    // Fair, so waiting tasks start in the order they arrived, like a queue
+    private final Semaphore running;
+    private final Semaphore admitted;
+
+    VirtualThreadBulkheadExecutor(String name, int concurrency, int queueCapacity) {
+        this.name = name;
+        this.concurrency = concurrency;
+        this.capacity = concurrency + queueCapacity;
+        this.threadFactory = Thread.ofVirtual().name("bulkhead-" + name + "-", 0).factory();
+        this.running = new Semaphore(concurrency, true);
+        this.admitted = new Semaphore(capacity);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            throw new TaskRejectedException("Bulkhead " + name + " is full");
+        }
+        threadFactory.newThread(() -> {
+            try {
+                running.acquire();
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                admitted.release();
+            }
+        }).start();
+    }
+
+    int getActive() {
+        return concurrency - running.availablePermits();
+    }
+
+    int getQueued() {
+        return Math.max(0, capacity - admitted.availablePermits() - getActive());
+    }
+}
@@ -0,0 +1,59 @@
+package com.noir.restaurant.controllers;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// Restaurant reads carry a strong ETag built from the document's _primary_term and _seq_no
+final class ConditionalResponses {
+
+    // Caches may store the response but have to revalidate it with If-None-Match before reuse
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    private ConditionalResponses() {
+    }
+
+    static String etag(Restaurant restaurant) {
+        return etag(restaurant.getSeqNoPrimaryTerm());
+    }
+
+    static String etag(SeqNoPrimaryTerm version) {
+        if (version == null) {
+            return null;
+        }
+        return "\"" + version.primaryTerm() + "-" + version.sequenceNumber() + "\"";
+    }
+
+    // The gzipped bytes are a different representation and need a validator of their own
+    static String gzipEtag(SeqNoPrimaryTerm version) {
+        if (version == null) {
+            return null;
+        }
+        return "\"" + version.primaryTerm() + "-" + version.sequenceNumber() + "-gz\"";
+    }
+
+    // The body is only built when the client's copy is stale
+    static <T> ResponseEntity<T> ok(WebRequest request, Restaurant restaurant, Supplier<T> body) {
+        String etag = etag(restaurant);
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(body.get());
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                             .eTag(etag)
+                             .cacheControl(CACHE_CONTROL)
+                             .build();
+    }
+}
@@ -2,28 +2,36 @@ package com.noir.restaurant.controllers;
 
 import com.noir.restaurant.domain.dtos.ErrorDto;
 import com.noir.restaurant.exceptions.BaseException;
+import com.noir.restaurant.exceptions.InvalidPhotoException;
+import com.noir.restaurant.exceptions.LookupTimeoutException;
 import com.noir.restaurant.exceptions.RestaurantNotFoundException;
 import com.noir.restaurant.exceptions.ReviewNotAllowedException;
 import com.noir.restaurant.exceptions.StorageException;
-import lombok.extern.slf4j.Slf4j;
+import com.noir.restaurant.exceptions.UploadCapacityExceededException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.stream.Collectors;
 
 @RestController
 @ControllerAdvice
-@Slf4j
+@RequiredArgsConstructor
 public class ErrorController {
 
+    private final ErrorReporter errorReporter;
+
     @ExceptionHandler(ReviewNotAllowedException.class)
     public ResponseEntity<ErrorDto> handleReviewNotAllowedException(
             ReviewNotAllowedException ex) {
-        log.error("Caught ReviewNotAllowedException", ex);
+        errorReporter.expected(ex, HttpStatus.BAD_REQUEST);
 
         ErrorDto errorDto = ErrorDto.builder()
                                     .status(HttpStatus.BAD_REQUEST.value())
@@ -36,7 +44,7 @@ public class ErrorController {
     @ExceptionHandler(RestaurantNotFoundException.class)
     public ResponseEntity<ErrorDto> handleRestaurantNotFoundException(
             RestaurantNotFoundException ex) {
-        log.error("Caught RestaurantNotFoundException", ex);
+        errorReporter.expected(ex, HttpStatus.NOT_FOUND);
 
         ErrorDto errorDto = ErrorDto.builder()
                                     .status(HttpStatus.NOT_FOUND.value())
@@ -49,7 +57,7 @@ public class ErrorController {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorDto> handleMethodArgumentNotValidException(
             MethodArgumentNotValidException ex) {
-        log.error("Caught MethodArgumentNotValidException", ex);
+        errorReporter.expected(ex, HttpStatus.BAD_REQUEST);
 
         String errorMessage =
                 ex
@@ -66,10 +74,86 @@ public class ErrorController {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidPhotoException.class)
+    public ResponseEntity<ErrorDto> handleInvalidPhotoException(InvalidPhotoException ex) {
+        errorReporter.expected(ex, HttpStatus.BAD_REQUEST);
+
+        ErrorDto errorDto = ErrorDto.builder()
+                                    .status(HttpStatus.BAD_REQUEST.value())
+                                    .message(ex.getMessage())
+                                    .build();
+
+        return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(UploadCapacityExceededException.class)
+    public ResponseEntity<ErrorDto> handleUploadCapacityExceededException(
+            UploadCapacityExceededException ex) {
+        errorReporter.expected(ex, HttpStatus.SERVICE_UNAVAILABLE);
+
+        ErrorDto errorDto = ErrorDto.builder()
+                                    .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                    .message("Too many uploads in progress, please retry shortly")
+                                    .build();
+
+        return new ResponseEntity<>(errorDto, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(LookupTimeoutException.class)
+    public ResponseEntity<ErrorDto> handleLookupTimeoutException(LookupTimeoutException ex) {
+        errorReporter.expected(ex, HttpStatus.SERVICE_UNAVAILABLE);
+
+        ErrorDto errorDto = ErrorDto.builder()
+                                    .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                    .message("The request took too long, please retry shortly")
+                                    .build();
+
+        return new ResponseEntity<>(errorDto, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDto> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex) {
+        errorReporter.expected(ex, HttpStatus.CONFLICT);
+
+        ErrorDto errorDto = ErrorDto.builder()
+                                    .status(HttpStatus.CONFLICT.value())
+                                    .message("The restaurant was changed by another request, please retry")
+                                    .build();
+
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
+    // A bulkhead whose pool and queue are full
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorDto> handleTaskRejectedException(TaskRejectedException ex) {
+        errorReporter.expected(ex, HttpStatus.SERVICE_UNAVAILABLE);
+
+        ErrorDto errorDto = ErrorDto.builder()
+                                    .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                    .message("The service is busy, please retry shortly")
+                                    .build();
+
+        return new ResponseEntity<>(errorDto, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorDto> handleAsyncRequestTimeoutException(
+            AsyncRequestTimeoutException ex) {
+        errorReporter.expected(ex, HttpStatus.SERVICE_UNAVAILABLE);
+
+        ErrorDto errorDto = ErrorDto.builder()
+                                    .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                    .message("The request took too long, please retry shortly")
+                                    .build();
+
+        return new ResponseEntity<>(errorDto, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     // Handle storage-related exceptions
     @ExceptionHandler(StorageException.class)
     public ResponseEntity<ErrorDto> handleStorageException(StorageException ex) {
-        log.error("caught StorageException: ", ex);
+        errorReporter.unexpected(ex, HttpStatus.INTERNAL_SERVER_ERROR);
 
         ErrorDto errorDto = ErrorDto.builder()
                                     .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
@@ -82,7 +166,7 @@ public class ErrorController {
     // Handle our base application exception
     @ExceptionHandler(BaseException.class)
     public ResponseEntity<ErrorDto> handleBaseException(BaseException ex) {
-        log.error("Caught BaseException", ex);
+        errorReporter.unexpected(ex, HttpStatus.INTERNAL_SERVER_ERROR);
 
         ErrorDto error = ErrorDto.builder()
                                  .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
@@ -95,7 +179,7 @@ public class ErrorController {
     // Catch-all for unexpected exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDto> handleException(Exception ex) {
-        log.error("Caught unexpected exception", ex);
+        errorReporter.unexpected(ex, HttpStatus.INTERNAL_SERVER_ERROR);
 
         ErrorDto error = ErrorDto.builder()
                                  .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
@@ -0,0 +1,64 @@
+package com.noir.restaurant.controllers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Every error is counted, but routine client errors are only logged once per interval and type
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class ErrorReporter {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Class<?>, LogWindow> logWindows = new ConcurrentHashMap<>();
+
+    @Value("${app.errors.log-interval:10s}")
+    private Duration logInterval;
+
+    // Expected outcomes such as 404s and validation failures, one WARN line without a stack trace
+    void expected(Exception ex, HttpStatus status) {
+        count(ex, status);
+
+        LogWindow window = logWindows.computeIfAbsent(ex.getClass(), type -> new LogWindow());
+        long now = System.nanoTime();
+        long nextLogAt = window.nextLogAt.get();
+        if (now - nextLogAt < 0 || !window.nextLogAt.compareAndSet(nextLogAt,
+                                                                    now + logInterval.toNanos())) {
+            window.suppressed.increment();
+            return;
+        }
+        log.warn("{} {}: {} ({} similar since last report)", status.value(),
+                 ex.getClass().getSimpleName(), ex.getMessage(), window.suppressed.sumThenReset());
+    }
+
+    void unexpected(Exception ex, HttpStatus status) {
+        count(ex, status);
+        log.error("Caught {}", ex.getClass().getSimpleName(), ex);
+    }
+
+    private void count(Exception ex, HttpStatus status) {
+        Counter.builder("app.errors")
+               .description("Requests that ended in an error response")
+               .tag("exception", ex.getClass().getSimpleName())
+               .tag("status", String.valueOf(status.value()))
+               .register(meterRegistry)
+               .increment();
+    }
+
+    private static final class LogWindow {
+        private final AtomicLong nextLogAt = new AtomicLong(System.nanoTime());
+        private final LongAdder suppressed = new LongAdder();
+    }
+}
@@ -1,35 +1,81 @@
 package com.noir.restaurant.controllers;
 
+import com.noir.restaurant.config.Bulkheads;
+import com.noir.restaurant.domain.PhotoUploadResult;
+import com.noir.restaurant.domain.UploadedPhoto;
 import com.noir.restaurant.domain.dtos.PhotoDto;
+import com.noir.restaurant.domain.dtos.PhotoUploadResultDto;
 import com.noir.restaurant.domain.entities.Photo;
 import com.noir.restaurant.mappers.PhotoMapper;
+import com.noir.restaurant.services.PhotoCacheService;
 import com.noir.restaurant.services.PhotoService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.List;
+
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping(path = "/api/photos")
 public class PhotoController {
 
     private final PhotoService photoService;
     private final PhotoMapper photoMapper;
+    private final PhotoCacheService photoCacheService;
+    private final Bulkheads bulkheads;
 
     @PostMapping
-    public PhotoDto uploadPhoto(@RequestParam("file") MultipartFile file) {
-        Photo savedPhoto = photoService.uploadPhoto(file);
-        return photoMapper.toDto(savedPhoto);
+    public WebAsyncTask<PhotoDto> uploadPhoto(@RequestParam("file") MultipartFile file) {
+        return bulkheads.photo().run(() -> {
+            Photo savedPhoto = photoService.uploadPhoto(file);
+            return photoMapper.toDto(savedPhoto);
+        });
+    }
+
+    // Raw image bodies are streamed straight to storage instead of being buffered as multipart
+    @PostMapping(consumes = "image/*")
+    public WebAsyncTask<ResponseEntity<PhotoDto>> uploadPhotoStream(HttpServletRequest request) {
+        return bulkheads.photo().run(() -> {
+            try (InputStream inputStream = request.getInputStream()) {
+                UploadedPhoto uploadedPhoto = photoService.uploadPhoto(
+                        inputStream, request.getContentLengthLong());
+                return ResponseEntity
+                        .ok()
+                        .header("Repr-Digest", "sha-256=:" + uploadedPhoto.getDigest() + ":")
+                        .body(photoMapper.toDto(uploadedPhoto.getPhoto()));
+            }
+        });
     }
 
+    @PostMapping(path = "/batch")
+    public WebAsyncTask<ResponseEntity<List<PhotoUploadResultDto>>> uploadPhotos(
+            @RequestParam("files") List<MultipartFile> files) {
+        return bulkheads.photo().run(() -> {
+            List<PhotoUploadResult> results = photoService.uploadPhotos(files);
+            boolean allStored = results.stream().allMatch(result -> result.getError() == null);
+
+            return ResponseEntity
+                    .status(allStored ? HttpStatus.OK : HttpStatus.MULTI_STATUS)
+                    .body(results.stream().map(photoMapper::toUploadResultDto).toList());
+        });
+    }
+
+    // Cache loads run in the photo bulkhead, the body of a large uncached file is streamed on dispatch
     @GetMapping(path = "/{id:.+}")
-    public ResponseEntity<Resource> getPhoto(@PathVariable String id) {
-        return photoService
+    public WebAsyncTask<ResponseEntity<Resource>> getPhoto(@PathVariable String id) {
+        return bulkheads.photo().run(() -> photoCacheService
                 .getPhotoAsResource(id)
                 .map(photo -> ResponseEntity
                         .ok()
@@ -38,7 +84,6 @@ public class PhotoController {
                                              .orElse(MediaType.APPLICATION_OCTET_STREAM))
                         .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
                         .body(photo))
-                .orElse(ResponseEntity.notFound().build());
-
+                .orElse(ResponseEntity.notFound().build()));
     }
 }
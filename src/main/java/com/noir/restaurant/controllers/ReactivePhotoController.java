@@ -0,0 +1,38 @@
+package com.noir.restaurant.controllers;
+
+import com.noir.restaurant.services.PhotoCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/photos")
+public class ReactivePhotoController {
+
+    private final PhotoCacheService photoCacheService;
+
+    // The lookup may touch the disk so it runs off the event loop, the body itself is written zero-copy
+    @GetMapping(path = "/{id:.+}")
+    public Mono<ResponseEntity<Resource>> getPhoto(@PathVariable String id) {
+        return Mono.fromCallable(() -> photoCacheService.getPhotoAsResource(id))
+                   .subscribeOn(Schedulers.boundedElastic())
+                   .map(photo -> photo
+                           .map(resource -> ResponseEntity
+                                   .ok()
+                                   .contentType(MediaTypeFactory
+                                                        .getMediaType(resource)
+                                                        .orElse(MediaType.APPLICATION_OCTET_STREAM))
+                                   .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
+                                   .body(resource))
+                           .orElse(ResponseEntity.notFound().build()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.noir.restaurant.controllers;
+
+import com.noir.restaurant.domain.dtos.RestaurantDto;
+import com.noir.restaurant.domain.dtos.RestaurantSummaryDto;
+import com.noir.restaurant.mappers.RestaurantMapper;
+import com.noir.restaurant.services.ReactiveRestaurantService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Read-only twin of RestaurantController for the reactive profile, search results are streamed without totals
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "api/restaurants")
+@RequiredArgsConstructor
+public class ReactiveRestaurantController {
+
+    private final ReactiveRestaurantService restaurantService;
+    private final RestaurantMapper restaurantMapper;
+
+    @GetMapping
+    public Flux<RestaurantSummaryDto> searchRestaurants(@RequestParam(required = false) String q,
+                                                        @RequestParam(required = false) Float minRating,
+                                                        @RequestParam(required = false) Float latitude,
+                                                        @RequestParam(required = false) Float longitude,
+                                                        @RequestParam(required = false) Float radius,
+                                                        @RequestParam(defaultValue = "1") int page,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        return restaurantService
+                .searchRestaurants(q, minRating, latitude, longitude, radius,
+                                   PageRequest.of(page - 1, size))
+                .map(restaurantMapper::toSummaryDto);
+    }
+
+    @GetMapping(path = "/{restaurant_id}")
+    public Mono<ResponseEntity<RestaurantDto>> getRestaurant(
+            @PathVariable("restaurant_id") String restaurantId) {
+        return restaurantService.getRestaurant(restaurantId)
+                                .map(restaurant -> ResponseEntity.ok(
+                                        restaurantMapper.toRestaurantDto(restaurant)))
+                                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
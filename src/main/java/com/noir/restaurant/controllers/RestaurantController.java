@@ -1,75 +1,150 @@
 package com.noir.restaurant.controllers;
 
+import com.noir.restaurant.config.Bulkheads;
 import com.noir.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.noir.restaurant.domain.RestaurantView;
 import com.noir.restaurant.domain.dtos.RestaurantCreateUpdateRequestDto;
 import com.noir.restaurant.domain.dtos.RestaurantDto;
+import com.noir.restaurant.domain.dtos.RestaurantPatchRequestDto;
 import com.noir.restaurant.domain.dtos.RestaurantSummaryDto;
 import com.noir.restaurant.domain.entities.Restaurant;
 import com.noir.restaurant.mappers.RestaurantMapper;
 import com.noir.restaurant.services.RestaurantService;
+import com.noir.restaurant.services.RestaurantViewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.Locale;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "api/restaurants")
 @RequiredArgsConstructor
 public class RestaurantController {
 
     private final RestaurantService restaurantService;
     private final RestaurantMapper restaurantMapper;
+    private final RestaurantViewService restaurantViewService;
+    private final Bulkheads bulkheads;
 
     @PostMapping
-    public ResponseEntity<RestaurantDto> createRestaurant(
+    public WebAsyncTask<ResponseEntity<RestaurantDto>> createRestaurant(
             @Valid @RequestBody RestaurantCreateUpdateRequestDto request) {
-        RestaurantCreateUpdateRequest createUpdateRequest = restaurantMapper.toRestaurantCreateUpdateRequest(
-                request);
-        Restaurant restaurant = restaurantService.createRestaurant(createUpdateRequest);
-        RestaurantDto createdRestaurantDto = restaurantMapper.toRestaurantDto(restaurant);
-        return ResponseEntity.ok(createdRestaurantDto);
+        return bulkheads.write().run(() -> {
+            RestaurantCreateUpdateRequest createUpdateRequest = restaurantMapper.toRestaurantCreateUpdateRequest(
+                    request);
+            Restaurant restaurant = restaurantService.createRestaurant(createUpdateRequest);
+            RestaurantDto createdRestaurantDto = restaurantMapper.toRestaurantDto(restaurant);
+            return ResponseEntity.ok(createdRestaurantDto);
+        });
     }
 
     @GetMapping
-    public Page<RestaurantSummaryDto> searchRestaurants(@RequestParam(required = false) String q,
-                                                        @RequestParam(required = false) Float minRating,
-                                                        @RequestParam(required = false) Float latitude,
-                                                        @RequestParam(required = false) Float longitude,
-                                                        @RequestParam(required = false) Float radius,
-                                                        @RequestParam(defaultValue = "1") int page,
-                                                        @RequestParam(defaultValue = "20") int size) {
-        Page<Restaurant> searchReuslt = restaurantService.searchRestaurants(
-                q, minRating, latitude, longitude, radius, PageRequest.of(page - 1, size));
-
-        return searchReuslt.map(restaurantMapper::toSummaryDto);
+    public WebAsyncTask<Page<RestaurantSummaryDto>> searchRestaurants(@RequestParam(required = false) String q,
+                                                                      @RequestParam(required = false) Float minRating,
+                                                                      @RequestParam(required = false) Float latitude,
+                                                                      @RequestParam(required = false) Float longitude,
+                                                                      @RequestParam(required = false) Float radius,
+                                                                      @RequestParam(defaultValue = "1") int page,
+                                                                      @RequestParam(defaultValue = "20") int size) {
+        return bulkheads.search().run(() -> {
+            Page<Restaurant> searchReuslt = restaurantService.searchRestaurants(
+                    q, minRating, latitude, longitude, radius, PageRequest.of(page - 1, size));
+
+            return searchReuslt.map(restaurantMapper::toSummaryDto);
+        });
     }
 
     @GetMapping(path = "/{restaurant_id}")
-    public ResponseEntity<RestaurantDto> getRestaurant(
-            @PathVariable("restaurant_id") String restaurantId) {
-        return restaurantService.getRestaurant(restaurantId)
-                                .map(restaurant -> ResponseEntity.ok(
-                                        restaurantMapper.toRestaurantDto(restaurant)))
-                                .orElse(ResponseEntity.notFound().build());
+    public WebAsyncTask<ResponseEntity<?>> getRestaurant(
+            @PathVariable("restaurant_id") String restaurantId, WebRequest request) {
+        return bulkheads.search().run(() -> {
+            if (restaurantViewService.isEnabled()) {
+                return restaurantViewService.getView(restaurantId)
+                                            .map(view -> toViewResponse(view, request))
+                                            .orElse(ResponseEntity.notFound().build());
+            }
+
+            return restaurantService.getRestaurantDetail(restaurantId)
+                                    .map(restaurant -> ConditionalResponses.ok(
+                                            request, restaurant,
+                                            () -> restaurantMapper.toRestaurantDto(restaurant)))
+                                    .orElse(ResponseEntity.notFound().build());
+        });
     }
 
     @PutMapping(path = "/{restaurant_id}")
-    public ResponseEntity<RestaurantDto> updateRestaurant(
+    public WebAsyncTask<ResponseEntity<RestaurantDto>> updateRestaurant(
             @PathVariable("restaurant_id") String restaurantId,
             @Valid @RequestBody RestaurantCreateUpdateRequestDto requestDto) {
-        RestaurantCreateUpdateRequest request = restaurantMapper.toRestaurantCreateUpdateRequest(
-                requestDto);
-        Restaurant updatedRestaurant = restaurantService.updateRestaurant(restaurantId, request);
+        return bulkheads.write().run(() -> {
+            RestaurantCreateUpdateRequest request = restaurantMapper.toRestaurantCreateUpdateRequest(
+                    requestDto);
+            Restaurant updatedRestaurant = restaurantService.updateRestaurant(restaurantId, request);
 
-        return ResponseEntity.ok(restaurantMapper.toRestaurantDto(updatedRestaurant));
+            return ResponseEntity.ok(restaurantMapper.toRestaurantDto(updatedRestaurant));
+        });
+    }
+
+    @PatchMapping(path = "/{restaurant_id}")
+    public WebAsyncTask<ResponseEntity<RestaurantDto>> patchRestaurant(
+            @PathVariable("restaurant_id") String restaurantId,
+            @Valid @RequestBody RestaurantPatchRequestDto requestDto) {
+        return bulkheads.write().run(() -> {
+            Restaurant patchedRestaurant = restaurantService.patchRestaurant(
+                    restaurantId, restaurantMapper.toRestaurantPatchRequest(requestDto));
+
+            return ResponseEntity.ok(restaurantMapper.toRestaurantDto(patchedRestaurant));
+        });
     }
 
     @DeleteMapping(path = "/{restaurant_id}")
-    public ResponseEntity<Void> deleteRestaurant(
+    public WebAsyncTask<ResponseEntity<Void>> deleteRestaurant(
             @PathVariable("restaurant_id") String restaurantId) {
-        restaurantService.deleteRestaurant(restaurantId);
-        return ResponseEntity.noContent().build();
+        return bulkheads.write().run(() -> {
+            restaurantService.deleteRestaurant(restaurantId);
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    // Pre-rendered JSON goes out as is, skipping the mapper and Jackson
+    static ResponseEntity<byte[]> toViewResponse(RestaurantView view, WebRequest request) {
+        String identityEtag = ConditionalResponses.etag(view.getVersion());
+        String gzipEtag = view.getGzippedJson() == null ? null : ConditionalResponses.gzipEtag(view.getVersion());
+        // A cache holding either encoding may revalidate, the 304 names the one it holds
+        for (String candidate : new String[]{gzipEtag, identityEtag}) {
+            if (candidate != null && request.checkNotModified(candidate)) {
+                return ConditionalResponses.notModified(candidate);
+            }
+        }
+
+        boolean gzipped = gzipEtag != null && acceptsGzip(request);
+        String etag = gzipped ? gzipEtag : identityEtag;
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(ConditionalResponses.CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzipped ? view.getGzippedJson() : view.getJson());
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
     }
 }
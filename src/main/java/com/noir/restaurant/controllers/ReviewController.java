@@ -1,14 +1,19 @@
 package com.noir.restaurant.controllers;
 
+import com.noir.restaurant.config.Bulkheads;
 import com.noir.restaurant.domain.ReviewCreateUpdateRequest;
 import com.noir.restaurant.domain.dtos.ReviewCreateUpdateRequestDto;
 import com.noir.restaurant.domain.dtos.ReviewDto;
+import com.noir.restaurant.domain.entities.Restaurant;
 import com.noir.restaurant.domain.entities.Review;
 import com.noir.restaurant.domain.entities.User;
+import com.noir.restaurant.exceptions.RestaurantNotFoundException;
 import com.noir.restaurant.mappers.ReviewMapper;
+import com.noir.restaurant.services.RestaurantService;
 import com.noir.restaurant.services.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -17,71 +22,100 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/restaurants/{restaurantId}/reviews")
 @RequiredArgsConstructor
 public class ReviewController {
 
     private final ReviewMapper reviewMapper;
     private final ReviewService reviewService;
+    private final RestaurantService restaurantService;
+    private final Bulkheads bulkheads;
 
     @PostMapping
-    public ResponseEntity<ReviewDto> createReview(@PathVariable String restaurantId,
-                                                  @Valid @RequestBody ReviewCreateUpdateRequestDto review,
-                                                  @AuthenticationPrincipal Jwt jwt) {
+    public WebAsyncTask<ResponseEntity<ReviewDto>> createReview(@PathVariable String restaurantId,
+                                                                @Valid @RequestBody ReviewCreateUpdateRequestDto review,
+                                                                @AuthenticationPrincipal Jwt jwt) {
         ReviewCreateUpdateRequest reviewCreateUpdateRequest = reviewMapper.toReviewCreateUpdateRequest(
                 review);
 
         User user = jwtToUser(jwt);
 
-        Review createdReview = reviewService.createReview(user, restaurantId,
-                                                          reviewCreateUpdateRequest);
+        return bulkheads.write().run(() -> {
+            Review createdReview = reviewService.createReview(user, restaurantId,
+                                                              reviewCreateUpdateRequest);
 
-        return ResponseEntity.ok(reviewMapper.toDto(createdReview));
+            return ResponseEntity.ok(reviewMapper.toDto(createdReview));
+        });
     }
 
     @GetMapping
-    public Page<ReviewDto> listReviews(@PathVariable String restaurantId,
-                                       @PageableDefault(size = 20, page = 0, sort = "datePosted",
-                                               direction = Sort.Direction.DESC
-                                       ) Pageable pageable) {
-        return reviewService
-                .listReviews(restaurantId, pageable)
-                .map(reviewMapper::toDto);
+    public WebAsyncTask<ResponseEntity<Page<ReviewDto>>> listReviews(@PathVariable String restaurantId,
+                                                                     @PageableDefault(size = 20, page = 0, sort = "datePosted",
+                                                                             direction = Sort.Direction.DESC
+                                                                     ) Pageable pageable,
+                                                                     WebRequest request) {
+        return bulkheads.search().run(() -> {
+            Restaurant restaurant = getRestaurantOrThrow(restaurantId);
+            return ConditionalResponses.ok(request, restaurant, () -> reviewService
+                    .listReviews(restaurant, pageable)
+                    .map(reviewMapper::toDto));
+        });
     }
 
     @GetMapping("/{reviewId}")
-    public ResponseEntity<ReviewDto> getReview(@PathVariable String restaurantId,
-                                               @PathVariable String reviewId) {
-        return reviewService.getReview(restaurantId, reviewId)
-                            .map(reviewMapper::toDto)
-                            .map(ResponseEntity::ok)
-                            .orElseGet(() -> ResponseEntity.noContent().build());
+    public WebAsyncTask<ResponseEntity<ReviewDto>> getReview(@PathVariable String restaurantId,
+                                                             @PathVariable String reviewId,
+                                                             WebRequest request) {
+        return bulkheads.search().run(() -> {
+            Restaurant restaurant = getRestaurantOrThrow(restaurantId);
+            return reviewService.getReview(restaurant, reviewId)
+                                .map(review -> ConditionalResponses.ok(
+                                        request, restaurant, () -> reviewMapper.toDto(review)))
+                                .orElseGet(() -> ResponseEntity.noContent().build());
+        });
     }
 
     @PutMapping("/{reviewId}")
-    public ResponseEntity<ReviewDto> updateReview(@PathVariable String restaurantId,
-                                                  @PathVariable String reviewId,
-                                                  @Valid @RequestBody ReviewCreateUpdateRequestDto review,
-                                                  @AuthenticationPrincipal Jwt jwt) {
+    public WebAsyncTask<ResponseEntity<ReviewDto>> updateReview(@PathVariable String restaurantId,
+                                                                @PathVariable String reviewId,
+                                                                @Valid @RequestBody ReviewCreateUpdateRequestDto review,
+                                                                @AuthenticationPrincipal Jwt jwt) {
         ReviewCreateUpdateRequest reviewCreateUpdateRequest = reviewMapper.toReviewCreateUpdateRequest(
                 review);
 
         User user = jwtToUser(jwt);
 
-        Review updatedReview = reviewService.updateReview(user, restaurantId, reviewId,
-                                                          reviewCreateUpdateRequest);
+        return bulkheads.write().run(() -> {
+            Review updatedReview = reviewService.updateReview(user, restaurantId, reviewId,
+                                                              reviewCreateUpdateRequest);
 
-        return ResponseEntity.ok(reviewMapper.toDto(updatedReview));
+            return ResponseEntity.ok(reviewMapper.toDto(updatedReview));
+        });
     }
 
     @DeleteMapping("/{reviewId}")
-    public ResponseEntity<Void> deleteReview(@PathVariable String restaurantId,
-                                             @PathVariable String reviewId,
-                                             @AuthenticationPrincipal Jwt jwt) {
-        reviewService.deleteReview(jwtToUser(jwt), restaurantId, reviewId);
-        return ResponseEntity.noContent().build();
+    public WebAsyncTask<ResponseEntity<Void>> deleteReview(@PathVariable String restaurantId,
+                                                           @PathVariable String reviewId,
+                                                           @AuthenticationPrincipal Jwt jwt) {
+        User user = jwtToUser(jwt);
+
+        return bulkheads.write().run(() -> {
+            reviewService.deleteReview(user, restaurantId, reviewId);
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    // Reviews live inside the restaurant document, so its version is also the version of every review
+    private Restaurant getRestaurantOrThrow(String restaurantId) {
+        return restaurantService
+                .getRestaurant(restaurantId)
+                .orElseThrow(() -> RestaurantNotFoundException.stackless(
+                        "Restaurant with id " + restaurantId + " not found."));
     }
 
     private User jwtToUser(Jwt jwt) {
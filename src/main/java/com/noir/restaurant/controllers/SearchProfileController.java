@@ -0,0 +1,32 @@
+package com.noir.restaurant.controllers;
+
+import com.noir.restaurant.domain.SearchProfile;
+import com.noir.restaurant.services.SearchProfilingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Admin-only (realm role admin, see SecurityConfig), takes the same parameters as GET /api/restaurants and returns per-clause timings
+@RestController
+@Profile("!reactive & !in-memory")
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/admin/search-profile")
+@ConditionalOnProperty(name = "app.search.profiling.enabled", havingValue = "true")
+public class SearchProfileController {
+
+    private final SearchProfilingService searchProfilingService;
+
+    @GetMapping
+    public SearchProfile profileSearch(@RequestParam(required = false) String q,
+                                       @RequestParam(required = false) Float minRating,
+                                       @RequestParam(required = false) Float latitude,
+                                       @RequestParam(required = false) Float longitude,
+                                       @RequestParam(required = false) Float radius,
+                                       @RequestParam(defaultValue = "20") int size) {
+        return searchProfilingService.profileSearch(q, minRating, latitude, longitude, radius, size);
+    }
+}
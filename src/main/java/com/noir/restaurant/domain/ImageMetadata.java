@@ -0,0 +1,16 @@
+package com.noir.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageMetadata {
+    private Integer width;
+    private Integer height;
+    private String placeholder;
+}
@@ -0,0 +1,17 @@
+package com.noir.restaurant.domain;
+
+import com.noir.restaurant.domain.entities.Photo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PhotoUploadResult {
+    private String fileName;
+    private Photo photo;
+    private String error;
+}
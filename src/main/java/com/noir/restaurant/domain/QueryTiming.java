@@ -0,0 +1,24 @@
+package com.noir.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class QueryTiming {
+    private String shard;
+    private String type;
+    private String description;
+    private double timeMs;
+    private Map<String, Long> breakdownNanos;
+    @Builder.Default
+    private List<QueryTiming> children = new ArrayList<>();
+}
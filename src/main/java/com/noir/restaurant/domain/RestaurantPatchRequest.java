@@ -0,0 +1,24 @@
+package com.noir.restaurant.domain;
+
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.domain.entities.OperatingHours;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Null fields are left as they are
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestaurantPatchRequest {
+    private String name;
+    private String cuisineType;
+    private String contactInformation;
+    private Address address;
+    private OperatingHours operatingHours;
+    private List<String> photoIds;
+}
@@ -0,0 +1,18 @@
+package com.noir.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestaurantView {
+    private String restaurantId;
+    private SeqNoPrimaryTerm version;
+    private byte[] json;
+    private byte[] gzippedJson;
+}
@@ -0,0 +1,21 @@
+package com.noir.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SearchProfile {
+    private String query;
+    private long tookMs;
+    private long totalHits;
+    @Builder.Default
+    private List<QueryTiming> timings = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.noir.restaurant.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StoredFile {
+    private String fileName;
+    private long size;
+    private String digest;
+    private ImageFormat format;
+}
@@ -0,0 +1,16 @@
+package com.noir.restaurant.domain;
+
+import com.noir.restaurant.domain.entities.Photo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UploadedPhoto {
+    private Photo photo;
+    private String digest;
+}
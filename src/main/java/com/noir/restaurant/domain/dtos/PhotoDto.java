@@ -14,4 +14,7 @@ import java.time.LocalDateTime;
 public class PhotoDto {
     private String url;
     private LocalDateTime uploadDate;
+    private Integer width;
+    private Integer height;
+    private String placeholder;
 }
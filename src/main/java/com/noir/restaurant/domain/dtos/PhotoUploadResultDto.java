@@ -0,0 +1,16 @@
+package com.noir.restaurant.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PhotoUploadResultDto {
+    private String fileName;
+    private PhotoDto photo;
+    private String error;
+}
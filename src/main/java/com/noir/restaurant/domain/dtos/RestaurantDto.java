@@ -32,9 +32,13 @@ public class RestaurantDto {
 
     private List<PhotoDto> photos = new ArrayList<>();
 
+    // Only the newest reviews, reviewsUrl pages through all of them
     private List<ReviewDto> reviews = new ArrayList<>();
 
     private UserDto createdBy;
 
     private Integer totalReviews;
+
+    // Paginated endpoint for the rest of the reviews
+    private String reviewsUrl;
 }
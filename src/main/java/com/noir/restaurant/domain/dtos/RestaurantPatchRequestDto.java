@@ -0,0 +1,36 @@
+package com.noir.restaurant.domain.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Same rules as RestaurantCreateUpdateRequestDto, applied only to the fields that are present
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestaurantPatchRequestDto {
+    @Pattern(regexp = ".*\\S.*", message = "Restaurant Name must not be blank")
+    private String name;
+
+    @Pattern(regexp = ".*\\S.*", message = "Cuisine Type must not be blank")
+    private String cuisineType;
+
+    @Pattern(regexp = ".*\\S.*", message = "Contact Information must not be blank")
+    private String contactInformation;
+
+    @Valid
+    private AddressDto address;
+
+    @Valid
+    private OperatingHoursDto operatingHours;
+
+    @Size(min = 1, message = "At least one photo ID is required")
+    private List<String> photoIds;
+}
@@ -22,4 +22,12 @@ public class Photo {
     @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second)
     private LocalDateTime uploadDate;
 
+    @Field(type = FieldType.Integer)
+    private Integer width;
+
+    @Field(type = FieldType.Integer)
+    private Integer height;
+
+    @Field(type = FieldType.Keyword, index = false, docValues = false)
+    private String placeholder;
 }
@@ -10,11 +10,13 @@ import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import org.springframework.data.elasticsearch.annotations.GeoPointField;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 
 import java.util.ArrayList;
 import java.util.List;
 
-@Document(indexName = "restaurants")
+// Created by RestaurantIndexInitializer after startup, so refreshing the context never waits on Elasticsearch
+@Document(indexName = "restaurants", createIndex = false)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -51,6 +53,17 @@ public class Restaurant {
     @Field(type = FieldType.Nested)
     private List<Review> reviews = new ArrayList<>();
 
+    // Newest reviews first, rewritten with every review change so detail reads can leave out reviews
+    @Field(type = FieldType.Object, enabled = false)
+    @Builder.Default
+    private List<Review> latestReviews = new ArrayList<>();
+
+    @Field(type = FieldType.Integer)
+    private Integer totalReviews;
+
     @Field(type = FieldType.Nested)
     private User createdBy;
+
+    // Not stored in the source, filled from _seq_no/_primary_term on every read
+    private SeqNoPrimaryTerm seqNoPrimaryTerm;
 }
@@ -15,4 +15,10 @@ public class BaseException extends RuntimeException {
     public BaseException(Throwable cause) {
         super(cause);
     }
+
+    // Lets expected client errors skip fillInStackTrace, which dominates the cost of throwing
+    protected BaseException(String message, Throwable cause, boolean enableSuppression,
+                            boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
 }
@@ -0,0 +1,29 @@
+package com.noir.restaurant.exceptions;
+
+public class InvalidPhotoException extends BaseException {
+    public static final InvalidPhotoException UNSUPPORTED_FORMAT =
+            stackless("Unsupported image format");
+
+    public InvalidPhotoException() {
+    }
+
+    public InvalidPhotoException(String message) {
+        super(message);
+    }
+
+    public InvalidPhotoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidPhotoException(Throwable cause) {
+        super(cause);
+    }
+
+    private InvalidPhotoException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    public static InvalidPhotoException stackless(String message) {
+        return new InvalidPhotoException(message, false);
+    }
+}
@@ -0,0 +1,18 @@
+package com.noir.restaurant.exceptions;
+
+public class LookupTimeoutException extends BaseException {
+    public LookupTimeoutException() {
+    }
+
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+
+    public LookupTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public LookupTimeoutException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -15,4 +15,12 @@ public class RestaurantNotFoundException extends BaseException {
     public RestaurantNotFoundException(Throwable cause) {
         super(cause);
     }
+
+    private RestaurantNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    public static RestaurantNotFoundException stackless(String message) {
+        return new RestaurantNotFoundException(message, false);
+    }
 }
@@ -1,6 +1,18 @@
 package com.noir.restaurant.exceptions;
 
 public class ReviewNotAllowedException extends BaseException {
+    // Shared instances are safe because they carry no stack trace and no suppressed exceptions
+    public static final ReviewNotAllowedException ALREADY_REVIEWED =
+            stackless("User has already written a review for this restaurant.");
+    public static final ReviewNotAllowedException REVIEW_NOT_FOUND =
+            stackless("Review does not exist");
+    public static final ReviewNotAllowedException NOT_AUTHOR_OF_UPDATE =
+            stackless("Cannot update another user's review.");
+    public static final ReviewNotAllowedException NOT_AUTHOR_OF_DELETE =
+            stackless("Cannot delete another user's review.");
+    public static final ReviewNotAllowedException EDIT_WINDOW_CLOSED =
+            stackless("Review can no longer be updated.");
+
     public ReviewNotAllowedException() {
         super();
     }
@@ -16,4 +28,12 @@ public class ReviewNotAllowedException extends BaseException {
     public ReviewNotAllowedException(Throwable cause) {
         super(cause);
     }
+
+    private ReviewNotAllowedException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    public static ReviewNotAllowedException stackless(String message) {
+        return new ReviewNotAllowedException(message, false);
+    }
 }
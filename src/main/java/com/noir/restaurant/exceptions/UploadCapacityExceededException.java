@@ -0,0 +1,26 @@
+package com.noir.restaurant.exceptions;
+
+public class UploadCapacityExceededException extends BaseException {
+    public UploadCapacityExceededException() {
+    }
+
+    public UploadCapacityExceededException(String message) {
+        super(message);
+    }
+
+    public UploadCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public UploadCapacityExceededException(Throwable cause) {
+        super(cause);
+    }
+
+    private UploadCapacityExceededException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    public static UploadCapacityExceededException stackless(String message) {
+        return new UploadCapacityExceededException(message, false);
+    }
+}
@@ -0,0 +1,81 @@
+package com.noir.restaurant.filters;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * In-flight cap that follows observed latency (AIMD): while the smoothed latency stays under the
+ * target the limit creeps up by one, once it goes over the limit is cut back. Requests in these
+ * classes spend most of their time waiting on Elasticsearch, so their latency tracks its health.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.05;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double latencyEwma;
+    private long lastDecreaseAt;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration targetLatency) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseAt = System.nanoTime();
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        adjust(latencyNanos);
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized double getLatencyEwmaMillis() {
+        return latencyEwma / 1_000_000d;
+    }
+
+    private synchronized void adjust(long latencyNanos) {
+        latencyEwma = latencyEwma == 0
+                ? latencyNanos
+                : latencyEwma + SMOOTHING * (latencyNanos - latencyEwma);
+
+        long now = System.nanoTime();
+        if (latencyEwma > targetLatencyNanos) {
+            // Back off at most once per target latency, so one slow burst does not collapse the limit
+            if (now - lastDecreaseAt > targetLatencyNanos) {
+                limit = Math.max(minLimit, (int) (limit * BACKOFF));
+                lastDecreaseAt = now;
+            }
+        } else if (inFlight.get() >= limit / 2) {
+            // Only grow a limit that is actually being used
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.noir.restaurant.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.noir.restaurant.domain.dtos.ErrorDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Sheds load before it reaches Elasticsearch. Each client (JWT subject, or IP when anonymous) has
+ * a token bucket and gets 429 once it is empty, then each endpoint class has an adaptive cap on
+ * requests in flight and answers 503 once it is full. Registered with the default filter order,
+ * so it runs after Spring Security has resolved the caller. The limits need tuning per deployment,
+ * so the filter only runs when app.admission.enabled is set. Anonymous clients are keyed by the
+ * address server.forward-headers-strategy resolves, otherwise everyone behind a proxy would share
+ * one bucket.
+ */
+@Component
+@RequiredArgsConstructor
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.admission.client-rate:20}")
+    private double clientRate;
+
+    @Value("${app.admission.client-burst:40}")
+    private double clientBurst;
+
+    @Value("${app.admission.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${app.admission.initial-limit:64}")
+    private int initialLimit;
+
+    @Value("${app.admission.min-limit:4}")
+    private int minLimit;
+
+    @Value("${app.admission.max-limit:512}")
+    private int maxLimit;
+
+    @Value("${app.admission.target-latency:250ms}")
+    private Duration targetLatency;
+
+    // Photo reads and uploads are bound by disk rather than Elasticsearch, so their cap is fixed
+    @Value("${app.admission.photo-limit:64}")
+    private int photoLimit;
+
+    private Cache<String, TokenBucket> clientBuckets;
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+
+    @PostConstruct
+    public void init() {
+        clientBuckets = Caffeine.newBuilder()
+                                .maximumSize(maxClients)
+                                .expireAfterAccess(Duration.ofMinutes(10))
+                                .build();
+
+        limits.put(EndpointClass.SEARCH,
+                   new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatency));
+        limits.put(EndpointClass.WRITE,
+                   new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatency));
+        limits.put(EndpointClass.PHOTO,
+                   new AdaptiveConcurrencyLimit(photoLimit, photoLimit, photoLimit, targetLatency));
+
+        limits.forEach((endpointClass, limit) -> {
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("app.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                 .tag("class", tag)
+                 .register(meterRegistry);
+            Gauge.builder("app.admission.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                 .tag("class", tag)
+                 .register(meterRegistry);
+            Gauge.builder("app.admission.latency", limit, AdaptiveConcurrencyLimit::getLatencyEwmaMillis)
+                 .tag("class", tag)
+                 .baseUnit("milliseconds")
+                 .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == EndpointClass.UNLIMITED) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenBucket bucket = clientBuckets.get(clientKey(request),
+                                               key -> new TokenBucket(clientBurst, clientRate));
+        if (!bucket.tryAcquire()) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, endpointClass, "client-rate",
+                   "Too many requests, please slow down");
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limit = limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, endpointClass, "concurrency",
+                   "The service is busy, please retry shortly");
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // The slot stays taken until the async work finishes, not when this thread returns
+                request.getAsyncContext().addListener(new ReleasingListener(limit, startedAt));
+            } else {
+                limit.release(System.nanoTime() - startedAt);
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            return "sub:" + jwtAuthentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, EndpointClass endpointClass,
+                        String reason, String message) throws IOException {
+        Counter.builder("app.admission.rejected")
+               .description("Requests turned away by admission control")
+               .tag("class", endpointClass.name().toLowerCase(Locale.ROOT))
+               .tag("reason", reason)
+               .register(meterRegistry)
+               .increment();
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorDto.builder()
+                                                                    .status(status.value())
+                                                                    .message(message)
+                                                                    .build());
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final long startedAt;
+
+        private ReleasingListener(AdaptiveConcurrencyLimit limit, long startedAt) {
+            this.limit = limit;
+            this.startedAt = startedAt;
+        }
+
+        // Also fires after a timeout or error, so this is the single place the slot is released
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(System.nanoTime() - startedAt);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
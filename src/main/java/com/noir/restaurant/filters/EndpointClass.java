@@ -0,0 +1,25 @@
+package com.noir.restaurant.filters;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+// Groups endpoints by the resource they compete for, each class gets its own concurrency limit
+public enum EndpointClass {
+    SEARCH,
+    WRITE,
+    PHOTO,
+    UNLIMITED;
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/photos")) {
+            return PHOTO;
+        }
+        if (path.startsWith("/api/restaurants")) {
+            boolean read = HttpMethod.GET.matches(request.getMethod())
+                    || HttpMethod.HEAD.matches(request.getMethod());
+            return read ? SEARCH : WRITE;
+        }
+        return UNLIMITED;
+    }
+}
@@ -1,6 +1,8 @@
 package com.noir.restaurant.mappers;
 
+import com.noir.restaurant.domain.PhotoUploadResult;
 import com.noir.restaurant.domain.dtos.PhotoDto;
+import com.noir.restaurant.domain.dtos.PhotoUploadResultDto;
 import com.noir.restaurant.domain.entities.Photo;
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
@@ -9,4 +11,6 @@ import org.mapstruct.ReportingPolicy;
 public interface PhotoMapper {
 
     PhotoDto toDto(Photo photo);
+
+    PhotoUploadResultDto toUploadResultDto(PhotoUploadResult result);
 }
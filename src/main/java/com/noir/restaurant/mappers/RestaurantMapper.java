@@ -1,9 +1,11 @@
 package com.noir.restaurant.mappers;
 
 import com.noir.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.noir.restaurant.domain.RestaurantPatchRequest;
 import com.noir.restaurant.domain.dtos.GeoPointDto;
 import com.noir.restaurant.domain.dtos.RestaurantCreateUpdateRequestDto;
 import com.noir.restaurant.domain.dtos.RestaurantDto;
+import com.noir.restaurant.domain.dtos.RestaurantPatchRequestDto;
 import com.noir.restaurant.domain.dtos.RestaurantSummaryDto;
 import com.noir.restaurant.domain.entities.Restaurant;
 import com.noir.restaurant.domain.entities.Review;
@@ -20,15 +22,29 @@ public interface RestaurantMapper {
     RestaurantCreateUpdateRequest toRestaurantCreateUpdateRequest(
             RestaurantCreateUpdateRequestDto dto);
 
-    @Mapping(source = "reviews", target = "totalReviews", qualifiedByName = "populateTotalReviews")
+    RestaurantPatchRequest toRestaurantPatchRequest(RestaurantPatchRequestDto dto);
+
+    @Mapping(source = "restaurant", target = "totalReviews", qualifiedByName = "populateTotalReviews")
+    @Mapping(source = "id", target = "reviewsUrl", qualifiedByName = "populateReviewsUrl")
+    @Mapping(source = "latestReviews", target = "reviews")
     RestaurantDto toRestaurantDto(Restaurant restaurant);
 
-    @Mapping(source = "reviews", target = "totalReviews", qualifiedByName = "populateTotalReviews")
+    @Mapping(source = "restaurant", target = "totalReviews", qualifiedByName = "populateTotalReviews")
     RestaurantSummaryDto toSummaryDto(Restaurant restaurant);
 
+    // Documents written before totalReviews existed still carry the full list
     @Named("populateTotalReviews")
-    default Integer populateTotalReviews(List<Review> reviews) {
-        return reviews.size();
+    default Integer populateTotalReviews(Restaurant restaurant) {
+        if (restaurant.getTotalReviews() != null) {
+            return restaurant.getTotalReviews();
+        }
+        List<Review> reviews = restaurant.getReviews();
+        return reviews == null ? 0 : reviews.size();
+    }
+
+    @Named("populateReviewsUrl")
+    default String populateReviewsUrl(String restaurantId) {
+        return "/api/restaurants/" + restaurantId + "/reviews";
     }
 
     @Mapping(target = "latitude", expression = "java(geoPoint.getLat())")
@@ -0,0 +1,634 @@
+package com.noir.restaurant.repositories;
+
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.domain.entities.OperatingHours;
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.domain.entities.TimeRange;
+import com.noir.restaurant.domain.entities.User;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/*
+ * RestaurantRepository held in the JVM, for load tests and benchmarks that should not measure
+ * Elasticsearch. Searches follow the templates in RestaurantQueries closely enough to exercise the
+ * same code paths: the rating range comes from a sorted index, the fuzzy clauses use AUTO edit
+ * distances against lower-cased tokens and geo distance is haversine. Stored documents are copies,
+ * so callers mutating a loaded restaurant do not see their changes until they save it.
+ * searchSimilar approximates more_like_this by the lower-cased tokens shared with the entity.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryRestaurantRepository implements RestaurantRepository {
+
+    private static final long PRIMARY_TERM = 1;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<RatingEntry> RATING_ORDER = Comparator
+            .comparingDouble(RatingEntry::rating)
+            .thenComparing(RatingEntry::id);
+
+    private final ConcurrentMap<String, Restaurant> documents = new ConcurrentHashMap<>();
+
+    // Ascending by averageRating, restaurants without a rating are left out like a missing field
+    private final ConcurrentSkipListSet<RatingEntry> ratingIndex = new ConcurrentSkipListSet<>(RATING_ORDER);
+
+    private final AtomicLong sequenceNumber = new AtomicLong();
+
+    @Override
+    public Page<Restaurant> findByAverageRatingGreaterThanEqual(Float minRating, Pageable pageable) {
+        return page(withRatingAtLeast(minRating), pageable);
+    }
+
+    @Override
+    public Page<Restaurant> findByQueryAndMinRating(String query, Float minRating, Pageable pageable) {
+        String term = query.toLowerCase(Locale.ROOT);
+        int maxEdits = autoFuzziness(term.length());
+
+        List<FuzzyMatch> matches = new ArrayList<>();
+        for (Restaurant restaurant : withRatingAtLeast(minRating)) {
+            int nameDistance = closestToken(term, restaurant.getName(), maxEdits);
+            int cuisineDistance = closestToken(term, restaurant.getCuisineType(), maxEdits);
+            int matchedFields = (nameDistance <= maxEdits ? 1 : 0) + (cuisineDistance <= maxEdits ? 1 : 0);
+            if (matchedFields > 0) {
+                matches.add(new FuzzyMatch(restaurant, matchedFields,
+                                           Math.min(nameDistance, cuisineDistance)));
+            }
+        }
+
+        // Stands in for scoring: both clauses beat one, closer beats further, then rating order
+        matches.sort(Comparator.comparingInt(FuzzyMatch::matchedFields)
+                               .reversed()
+                               .thenComparingInt(FuzzyMatch::distance));
+        return page(matches.stream().map(FuzzyMatch::restaurant).toList(), pageable);
+    }
+
+    @Override
+    public Page<Restaurant> findByLocationNear(Float latitude, Float longitude, Float radiusKm,
+                                               Pageable pageable) {
+        List<DistanceMatch> matches = new ArrayList<>();
+        for (Restaurant restaurant : documents.values()) {
+            GeoPoint location = restaurant.getGeoLocation();
+            if (location == null) {
+                continue;
+            }
+            double distance = haversineKm(latitude, longitude, location.getLat(), location.getLon());
+            if (distance <= radiusKm) {
+                matches.add(new DistanceMatch(restaurant, distance));
+            }
+        }
+
+        // Elasticsearch scores the filter as a constant, nearest first is the useful order here
+        matches.sort(Comparator.comparingDouble(DistanceMatch::distanceKm));
+        return page(matches.stream().map(DistanceMatch::restaurant).toList(), pageable);
+    }
+
+    // Same shape as the source filtered read: no reviews, the rest of the document copied
+    @Override
+    public Optional<Restaurant> findDetailById(String id) {
+        return Optional.ofNullable(documents.get(id)).map(restaurant -> copy(restaurant, false));
+    }
+
+    @Override
+    public Page<Restaurant> findAll(Pageable pageable) {
+        return page(byId(), pageable);
+    }
+
+    @Override
+    public Iterable<Restaurant> findAll(Sort sort) {
+        List<Restaurant> restaurants = new ArrayList<>(byId());
+        if (sort.isSorted()) {
+            restaurants.sort(comparator(sort));
+        }
+        return copies(restaurants);
+    }
+
+    @Override
+    public Iterable<Restaurant> findAll() {
+        return copies(byId());
+    }
+
+    @Override
+    public Iterable<Restaurant> findAllById(Iterable<String> ids) {
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (String id : ids) {
+            findById(id).ifPresent(restaurants::add);
+        }
+        return restaurants;
+    }
+
+    @Override
+    public Optional<Restaurant> findById(String id) {
+        return Optional.ofNullable(documents.get(id)).map(InMemoryRestaurantRepository::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public <S extends Restaurant> S save(S entity) {
+        String id = entity.getId() != null ? entity.getId() : UUID.randomUUID().toString();
+        SeqNoPrimaryTerm expected = entity.getSeqNoPrimaryTerm();
+
+        // The document and its index entry change together under the map's lock for this id
+        Restaurant stored = documents.compute(id, (key, current) -> {
+            if (expected != null
+                    && (current == null || !expected.equals(current.getSeqNoPrimaryTerm()))) {
+                throw new OptimisticLockingFailureException(
+                        "Restaurant " + id + " was changed since it was read");
+            }
+
+            Restaurant document = copy(entity);
+            document.setId(id);
+            document.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(sequenceNumber.incrementAndGet(),
+                                                              PRIMARY_TERM));
+            unindex(current);
+            index(document);
+            return document;
+        });
+
+        entity.setId(id);
+        entity.setSeqNoPrimaryTerm(stored.getSeqNoPrimaryTerm());
+        return entity;
+    }
+
+    @Override
+    public <S extends Restaurant> S save(S entity, RefreshPolicy refreshPolicy) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Restaurant> Iterable<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public <S extends Restaurant> Iterable<S> saveAll(Iterable<S> entities,
+                                                      RefreshPolicy refreshPolicy) {
+        return saveAll(entities);
+    }
+
+    // Like an update with detect_noop: the version only moves when a field actually changes. A
+    // changed address or operatingHours replaces the stored one whole, as the partial document does
+    @Override
+    public boolean updateFields(String id, Restaurant changes, SeqNoPrimaryTerm expectedVersion) {
+        AtomicBoolean updated = new AtomicBoolean();
+        documents.compute(id, (key, current) -> {
+            if (expectedVersion != null
+                    && (current == null || !expectedVersion.equals(current.getSeqNoPrimaryTerm()))) {
+                throw new OptimisticLockingFailureException(
+                        "Restaurant " + id + " was changed since it was read");
+            }
+            if (current == null) {
+                throw new DataRetrievalFailureException("Restaurant " + id + " not found");
+            }
+
+            Restaurant document = copy(current);
+            applyIfPresent(changes.getName(), document::setName);
+            applyIfPresent(changes.getCuisineType(), document::setCuisineType);
+            applyIfPresent(changes.getContactInformation(), document::setContactInformation);
+            applyIfPresent(changes.getGeoLocation(), document::setGeoLocation);
+            applyIfPresent(copy(changes.getAddress()), document::setAddress);
+            applyIfPresent(copy(changes.getOperatingHours()), document::setOperatingHours);
+            if (changes.getPhotos() != null) {
+                document.setPhotos(copyList(changes.getPhotos(), InMemoryRestaurantRepository::copy));
+            }
+
+            document.setSeqNoPrimaryTerm(current.getSeqNoPrimaryTerm());
+            if (document.equals(current)) {
+                return current;
+            }
+
+            document.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(sequenceNumber.incrementAndGet(),
+                                                              PRIMARY_TERM));
+            updated.set(true);
+            return document;
+        });
+        return updated.get();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        documents.computeIfPresent(id, (key, current) -> {
+            unindex(current);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteById(String id, RefreshPolicy refreshPolicy) {
+        deleteById(id);
+    }
+
+    @Override
+    public void delete(Restaurant entity) {
+        deleteById(entity.getId());
+    }
+
+    @Override
+    public void delete(Restaurant entity, RefreshPolicy refreshPolicy) {
+        delete(entity);
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids, RefreshPolicy refreshPolicy) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Restaurant> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Restaurant> entities, RefreshPolicy refreshPolicy) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAll() {
+        documents.keySet().forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(RefreshPolicy refreshPolicy) {
+        deleteAll();
+    }
+
+    @Override
+    public Page<Restaurant> searchSimilar(Restaurant entity, String[] fields, Pageable pageable) {
+        List<Function<Restaurant, String>> compared = similarityFields(fields);
+        Set<String> entityTokens = new HashSet<>();
+        compared.forEach(field -> entityTokens.addAll(tokens(field.apply(entity))));
+
+        List<SimilarMatch> matches = new ArrayList<>();
+        for (Restaurant restaurant : byId()) {
+            if (restaurant.getId().equals(entity.getId())) {
+                continue;
+            }
+            Set<String> shared = new HashSet<>();
+            compared.forEach(field -> shared.addAll(tokens(field.apply(restaurant))));
+            shared.retainAll(entityTokens);
+            if (!shared.isEmpty()) {
+                matches.add(new SimilarMatch(restaurant, shared.size()));
+            }
+        }
+
+        // More shared terms first, ties stay in id order
+        matches.sort(Comparator.comparingInt(SimilarMatch::sharedTerms).reversed());
+        return page(matches.stream().map(SimilarMatch::restaurant).toList(), pageable);
+    }
+
+    // Highest rating first, walking the index from the top down to minRating
+    private List<Restaurant> withRatingAtLeast(float minRating) {
+        List<Restaurant> matches = new ArrayList<>();
+        for (RatingEntry entry : ratingIndex.tailSet(new RatingEntry(minRating, ""), true)
+                                            .descendingSet()) {
+            Restaurant restaurant = documents.get(entry.id());
+            // A concurrent save can leave both the old and the new entry visible, only one is current
+            if (restaurant != null && restaurant.getAverageRating() != null
+                    && Float.compare(entry.rating(), restaurant.getAverageRating()) == 0) {
+                matches.add(restaurant);
+            }
+        }
+        return matches;
+    }
+
+    private List<Restaurant> byId() {
+        List<Restaurant> restaurants = new ArrayList<>(documents.values());
+        restaurants.sort(Comparator.comparing(Restaurant::getId));
+        return restaurants;
+    }
+
+    private void index(Restaurant restaurant) {
+        if (restaurant.getAverageRating() != null) {
+            ratingIndex.add(new RatingEntry(restaurant.getAverageRating(), restaurant.getId()));
+        }
+    }
+
+    private void unindex(Restaurant restaurant) {
+        if (restaurant != null && restaurant.getAverageRating() != null) {
+            ratingIndex.remove(new RatingEntry(restaurant.getAverageRating(), restaurant.getId()));
+        }
+    }
+
+    // Only the requested page is copied out of the store
+    private static Page<Restaurant> page(List<Restaurant> matches, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(copies(matches), pageable, matches.size());
+        }
+
+        List<Restaurant> ordered = matches;
+        if (pageable.getSort().isSorted()) {
+            ordered = new ArrayList<>(matches);
+            ordered.sort(comparator(pageable.getSort()));
+        }
+
+        int start = (int) Math.min(pageable.getOffset(), ordered.size());
+        int end = Math.min(start + pageable.getPageSize(), ordered.size());
+        return new PageImpl<>(copies(ordered.subList(start, end)), pageable, ordered.size());
+    }
+
+    private static Comparator<Restaurant> comparator(Sort sort) {
+        Comparator<Restaurant> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Restaurant> next = switch (order.getProperty()) {
+                case "averageRating" -> sortBy(Restaurant::getAverageRating, order);
+                case "name" -> sortBy(Restaurant::getName, order);
+                case "cuisineType" -> sortBy(Restaurant::getCuisineType, order);
+                case "id" -> sortBy(Restaurant::getId, order);
+                default -> throw new IllegalArgumentException(
+                        "Sorting by " + order.getProperty() + " is not supported in memory");
+            };
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    // Missing values sort last in both directions, as they do in Elasticsearch
+    private static <T extends Comparable<? super T>> Comparator<Restaurant> sortBy(
+            Function<Restaurant, T> property, Sort.Order order) {
+        Comparator<T> direction = order.isAscending() ? Comparator.naturalOrder()
+                                                      : Comparator.reverseOrder();
+        return Comparator.comparing(property, Comparator.nullsLast(direction));
+    }
+
+    // The text fields more_like_this would look at, others have nothing to compare in memory
+    private static List<Function<Restaurant, String>> similarityFields(String[] fields) {
+        if (fields == null || fields.length == 0) {
+            return List.of(Restaurant::getName, Restaurant::getCuisineType);
+        }
+        List<Function<Restaurant, String>> compared = new ArrayList<>();
+        for (String field : fields) {
+            if ("name".equals(field)) {
+                compared.add(Restaurant::getName);
+            } else if ("cuisineType".equals(field)) {
+                compared.add(Restaurant::getCuisineType);
+            }
+        }
+        return compared;
+    }
+
+    private static Set<String> tokens(String field) {
+        Set<String> tokens = new HashSet<>();
+        if (field != null) {
+            for (String token : TOKEN_SEPARATOR.split(field.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    // Elasticsearch's AUTO fuzziness: exact below 3 characters, one edit up to 5, then two
+    private static int autoFuzziness(int length) {
+        if (length < 3) {
+            return 0;
+        }
+        return length < 6 ? 1 : 2;
+    }
+
+    private static int closestToken(String term, String field, int maxEdits) {
+        if (field == null) {
+            return Integer.MAX_VALUE;
+        }
+        int closest = Integer.MAX_VALUE;
+        for (String token : TOKEN_SEPARATOR.split(field.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                closest = Math.min(closest, editDistance(term, token, maxEdits));
+            }
+        }
+        return closest;
+    }
+
+    // Levenshtein with adjacent transpositions, gives up once the distance exceeds maxEdits
+    private static int editDistance(String left, String right, int maxEdits) {
+        if (Math.abs(left.length() - right.length()) > maxEdits) {
+            return Integer.MAX_VALUE;
+        }
+
+        int[] previousRow = new int[right.length() + 1];
+        int[] row = new int[right.length() + 1];
+        int[] nextRow = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            row[j] = j;
+        }
+
+        for (int i = 1; i <= left.length(); i++) {
+            nextRow[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= right.length(); j++) {
+                int cost = left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(nextRow[j - 1] + 1, row[j] + 1), row[j - 1] + cost);
+                if (i > 1 && j > 1 && left.charAt(i - 1) == right.charAt(j - 2)
+                        && left.charAt(i - 2) == right.charAt(j - 1)) {
+                    distance = Math.min(distance, previousRow[j - 2] + 1);
+                }
+                nextRow[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > maxEdits) {
+                return Integer.MAX_VALUE;
+            }
+
+            int[] recycled = previousRow;
+            previousRow = row;
+            row = nextRow;
+            nextRow = recycled;
+        }
+        return row[right.length()] <= maxEdits ? row[right.length()] : Integer.MAX_VALUE;
+    }
+
+    private static double haversineKm(double fromLatitude, double fromLongitude, double toLatitude,
+                                      double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.sin(latitudeDelta / 2) * Math.sin(latitudeDelta / 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.sin(longitudeDelta / 2) * Math.sin(longitudeDelta / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static List<Restaurant> copies(List<Restaurant> restaurants) {
+        List<Restaurant> copies = new ArrayList<>(restaurants.size());
+        for (Restaurant restaurant : restaurants) {
+            copies.add(copy(restaurant));
+        }
+        return copies;
+    }
+
+    // Deep copies, the same isolation a round trip through the index gives
+    private static Restaurant copy(Restaurant restaurant) {
+        return copy(restaurant, true);
+    }
+
+    private static Restaurant copy(Restaurant restaurant, boolean withReviews) {
+        return Restaurant.builder()
+                         .id(restaurant.getId())
+                         .name(restaurant.getName())
+                         .cuisineType(restaurant.getCuisineType())
+                         .contactInformation(restaurant.getContactInformation())
+                         .averageRating(restaurant.getAverageRating())
+                         .geoLocation(restaurant.getGeoLocation() == null ? null
+                                 : new GeoPoint(restaurant.getGeoLocation().getLat(),
+                                                restaurant.getGeoLocation().getLon()))
+                         .address(copy(restaurant.getAddress()))
+                         .operatingHours(copy(restaurant.getOperatingHours()))
+                         .photos(copyList(restaurant.getPhotos(), InMemoryRestaurantRepository::copy))
+                         .reviews(withReviews
+                                          ? copyList(restaurant.getReviews(), InMemoryRestaurantRepository::copy)
+                                          : new ArrayList<>())
+                         .latestReviews(copyList(restaurant.getLatestReviews(),
+                                                 InMemoryRestaurantRepository::copy))
+                         .totalReviews(restaurant.getTotalReviews())
+                         .createdBy(copy(restaurant.getCreatedBy()))
+                         .seqNoPrimaryTerm(restaurant.getSeqNoPrimaryTerm())
+                         .build();
+    }
+
+    private static Review copy(Review review) {
+        return Review.builder()
+                     .id(review.getId())
+                     .content(review.getContent())
+                     .rating(review.getRating())
+                     .datePosted(review.getDatePosted())
+                     .lastEdited(review.getLastEdited())
+                     .photos(copyList(review.getPhotos(), InMemoryRestaurantRepository::copy))
+                     .writtenBy(copy(review.getWrittenBy()))
+                     .build();
+    }
+
+    private static Photo copy(Photo photo) {
+        return Photo.builder()
+                    .url(photo.getUrl())
+                    .uploadDate(photo.getUploadDate())
+                    .width(photo.getWidth())
+                    .height(photo.getHeight())
+                    .placeholder(photo.getPlaceholder())
+                    .build();
+    }
+
+    private static User copy(User user) {
+        if (user == null) {
+            return null;
+        }
+        return User.builder()
+                   .id(user.getId())
+                   .username(user.getUsername())
+                   .givenName(user.getGivenName())
+                   .familyName(user.getFamilyName())
+                   .build();
+    }
+
+    private static Address copy(Address address) {
+        if (address == null) {
+            return null;
+        }
+        return Address.builder()
+                      .streetNumber(address.getStreetNumber())
+                      .streetName(address.getStreetName())
+                      .unit(address.getUnit())
+                      .city(address.getCity())
+                      .state(address.getState())
+                      .postalCode(address.getPostalCode())
+                      .country(address.getCountry())
+                      .build();
+    }
+
+    private static OperatingHours copy(OperatingHours hours) {
+        if (hours == null) {
+            return null;
+        }
+        return OperatingHours.builder()
+                             .monday(copy(hours.getMonday()))
+                             .tuesday(copy(hours.getTuesday()))
+                             .wednesday(copy(hours.getWednesday()))
+                             .thursday(copy(hours.getThursday()))
+                             .friday(copy(hours.getFriday()))
+                             .saturday(copy(hours.getSaturday()))
+                             .sunday(copy(hours.getSunday()))
+                             .build();
+    }
+
+    private static TimeRange copy(TimeRange range) {
+        if (range == null) {
+            return null;
+        }
+        return TimeRange.builder().openTime(range.getOpenTime()).closeTime(range.getCloseTime()).build();
+    }
+
+    private static <T> void applyIfPresent(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    // A missing list reads back empty, like a freshly constructed entity
+    private static <T> List<T> copyList(List<T> list, Function<T, T> copier) {
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        List<T> copy = new ArrayList<>(list.size());
+        for (T element : list) {
+            copy.add(copier.apply(element));
+        }
+        return copy;
+    }
+
+    private record RatingEntry(float rating, String id) {
+    }
+
+    private record FuzzyMatch(Restaurant restaurant, int matchedFields, int distance) {
+    }
+
+    private record DistanceMatch(Restaurant restaurant, double distanceKm) {
+    }
+
+    private record SimilarMatch(Restaurant restaurant, int sharedTerms) {
+    }
+}
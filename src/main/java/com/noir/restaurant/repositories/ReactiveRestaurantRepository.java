@@ -0,0 +1,38 @@
+package com.noir.restaurant.repositories;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.annotations.Query;
+import org.springframework.data.elasticsearch.annotations.SourceFilters;
+import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Only the reactive controllers use it, other profiles would still create it and its client
+@Repository
+@Profile("reactive")
+public interface ReactiveRestaurantRepository extends ReactiveElasticsearchRepository<Restaurant, String> {
+
+    @Query(RestaurantQueries.MIN_RATING)
+    Flux<Restaurant> findByAverageRatingGreaterThanEqual(Float minRating, Pageable pageable);
+
+    @Query(RestaurantQueries.QUERY_AND_MIN_RATING)
+    Flux<Restaurant> findByQueryAndMinRating(String query, Float minRating, Pageable pageable);
+
+    @Query(RestaurantQueries.LOCATION_NEAR)
+    Flux<Restaurant> findByLocationNear(
+            Float latitude,
+            Float longitude,
+            Float radiusKm,
+            Pageable pageable);
+
+    @Query(RestaurantQueries.MATCH_ALL)
+    Flux<Restaurant> findAllRestaurants(Pageable pageable);
+
+    // Everything but the full review list, latestReviews and totalReviews stand in for it
+    @Query(RestaurantQueries.BY_ID)
+    @SourceFilters(excludes = "reviews")
+    Mono<Restaurant> findDetailById(String id);
+}
@@ -0,0 +1,76 @@
+package com.noir.restaurant.repositories;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Query templates shared by the blocking and reactive repositories, the slow-query log and the profiler
+public final class RestaurantQueries {
+
+    public static final String MIN_RATING = "{\"range\": {\"averageRating\": {\"gte\": ?0}}}";
+
+    public static final String QUERY_AND_MIN_RATING = "{" +
+            " \"bool\": {" +
+            "   \"must\": [" +
+            "       {\"range\": {\"averageRating\": {\"gte\": ?1}}}" +
+            "   ]," +
+            "   \"should\": [" +
+            "       {\"fuzzy\": {\"name\": {\"value\": \"?0\", \"fuzziness\": \"AUTO\"}}}," +
+            "       {\"fuzzy\": {\"cuisineType\": {\"value\": \"?0\", \"fuzziness\": \"AUTO\"}}}" +
+            "   ]," +
+            "   \"minimum_should_match\": 1" +
+            " }" +
+            "}" +
+            "}";
+
+    public static final String LOCATION_NEAR = "{" +
+            " \"bool\": {" +
+            "   \"must\": [" +
+            "       {\"geo_distance\": {" +
+            "           \"distance\": \"?2km\"," +
+            "               \"geoLocation\": {" +
+            "                   \"lat\": ?0," +
+            "                   \"lon\": ?1" +
+            "               }" +
+            "           }}" +
+            "       ]" +
+            "   }" +
+            "}";
+
+    public static final String MATCH_ALL = "{\"match_all\": {}}";
+
+    public static final String BY_ID = "{\"ids\": {\"values\": [\"?0\"]}}";
+
+    public static final String REFERENCES_PHOTO = "{" +
+            " \"bool\": {" +
+            "   \"should\": [" +
+            "       {\"nested\": {\"path\": \"photos\", \"query\": {\"term\": {\"photos.url\": \"?0\"}}}}," +
+            "       {\"nested\": {\"path\": \"reviews\", \"query\": {\"nested\": {" +
+            "           \"path\": \"reviews.photos\"," +
+            "           \"query\": {\"term\": {\"reviews.photos.url\": \"?0\"}}" +
+            "       }}}}" +
+            "   ]," +
+            "   \"minimum_should_match\": 1" +
+            " }" +
+            "}";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\?(\\d+)");
+
+    private RestaurantQueries() {
+    }
+
+    // Fills in ?0, ?1, ... the way @Query does, strings are JSON escaped since templates quote them
+    public static String render(String template, Object... parameters) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder rendered = new StringBuilder();
+        while (matcher.find()) {
+            int index = Integer.parseInt(matcher.group(1));
+            String value = index < parameters.length ? String.valueOf(parameters[index]) : matcher.group();
+            if (index < parameters.length && parameters[index] instanceof String) {
+                value = value.replace("\\", "\\\\").replace("\"", "\\\"");
+            }
+            matcher.appendReplacement(rendered, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(rendered);
+        return rendered.toString();
+    }
+}
@@ -4,45 +4,31 @@ import com.noir.restaurant.domain.entities.Restaurant;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.annotations.Query;
+import org.springframework.data.elasticsearch.annotations.SourceFilters;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface RestaurantRepository extends ElasticsearchRepository<Restaurant, String> {
+public interface RestaurantRepository extends ElasticsearchRepository<Restaurant, String>,
+        RestaurantRepositoryCustom {
 
+    @Query(RestaurantQueries.MIN_RATING)
     Page<Restaurant> findByAverageRatingGreaterThanEqual(Float minRating, Pageable pageable);
 
-    @Query("{" +
-            " \"bool\": {" +
-            "   \"must\": [" +
-            "       {\"range\": {\"averageRating\": {\"gte\": ?1}}}" +
-            "   ]," +
-            "   \"should\": [" +
-            "       {\"fuzzy\": {\"name\": {\"value\": \"?0\", \"fuzziness\": \"AUTO\"}}}," +
-            "       {\"fuzzy\": {\"cuisineType\": {\"value\": \"?0\", \"fuzziness\": \"AUTO\"}}}" +
-            "   ]," +
-            "   \"minimum_should_match\": 1" +
-            " }" +
-            "}" +
-            "}")
+    @Query(RestaurantQueries.QUERY_AND_MIN_RATING)
     Page<Restaurant> findByQueryAndMinRating(String query, Float minRating, Pageable pageable);
 
-    @Query("{" +
-            " \"bool\": {" +
-            "   \"must\": [" +
-            "       {\"geo_distance\": {" +
-            "           \"distance\": \"?2km\"," +
-            "               \"geoLocation\": {" +
-            "                   \"lat\": ?0," +
-            "                   \"lon\": ?1" +
-            "               }" +
-            "           }}" +
-            "       ]" +
-            "   }" +
-            "}")
+    @Query(RestaurantQueries.LOCATION_NEAR)
     Page<Restaurant> findByLocationNear(
             Float latitude,
             Float longitude,
             Float radiusKm,
             Pageable pageable);
+
+    // Everything but the full review list, latestReviews and totalReviews stand in for it
+    @Query(RestaurantQueries.BY_ID)
+    @SourceFilters(excludes = "reviews")
+    Optional<Restaurant> findDetailById(String id);
 }
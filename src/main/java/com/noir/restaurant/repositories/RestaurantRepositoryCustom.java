@@ -0,0 +1,10 @@
+package com.noir.restaurant.repositories;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+
+public interface RestaurantRepositoryCustom {
+
+    // Writes only the non-null fields of changes, false when the document already held those values
+    boolean updateFields(String id, Restaurant changes, SeqNoPrimaryTerm expectedVersion);
+}
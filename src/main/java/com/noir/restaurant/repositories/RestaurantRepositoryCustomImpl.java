@@ -0,0 +1,89 @@
+package com.noir.restaurant.repositories;
+
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.json.JsonData;
+import com.noir.restaurant.domain.entities.Restaurant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Partial updates through the client, since UpdateQuery has no detect_noop and takes the sequence
+ * number as an int. Going through execute keeps the template's exception translation, so a
+ * version conflict still surfaces as OptimisticLockingFailureException.
+ */
+@RequiredArgsConstructor
+public class RestaurantRepositoryCustomImpl implements RestaurantRepositoryCustom {
+
+    // Objects Elasticsearch would otherwise merge into the stored ones field by field
+    private static final List<String> REPLACED_OBJECTS = List.of("address", "operatingHours");
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    @Override
+    public boolean updateFields(String id, Restaurant changes, SeqNoPrimaryTerm expectedVersion) {
+        Document document = partialDocument(changes);
+        if (document.isEmpty()) {
+            return false;
+        }
+
+        // Sent as JSON text, the client's mapper would drop the explicit nulls again
+        JsonData partialDocument = JsonData.fromJson(document.toJson());
+        String indexName = elasticsearchTemplate.getIndexCoordinatesFor(Restaurant.class).getIndexName();
+        Result result = elasticsearchTemplate.execute(client -> client
+                .update(update -> update
+                                .index(indexName)
+                                .id(id)
+                                .doc(partialDocument)
+                                .detectNoop(true)
+                                .ifSeqNo(expectedVersion == null ? null : expectedVersion.sequenceNumber())
+                                .ifPrimaryTerm(expectedVersion == null ? null : expectedVersion.primaryTerm()),
+                        Void.class)
+                .result());
+        return result != Result.NoOp;
+    }
+
+    // Unset fields are left out by the converter, so the partial document holds only the changes
+    Document partialDocument(Restaurant changes) {
+        Document document = elasticsearchTemplate.getElasticsearchConverter().mapObject(changes);
+        document.remove("id");
+        document.remove("_class");
+
+        // A changed object replaces the stored one, so whatever it no longer has is sent as null
+        ElasticsearchPersistentEntity<?> restaurantEntity = persistentEntity(Restaurant.class);
+        for (String objectName : REPLACED_OBJECTS) {
+            if (document.get(objectName) instanceof Map<?, ?> object) {
+                ElasticsearchPersistentProperty property = restaurantEntity.getRequiredPersistentProperty(objectName);
+                addExplicitNulls(asFields(object), property.getActualType());
+            }
+        }
+        return document;
+    }
+
+    private void addExplicitNulls(Map<String, Object> object, Class<?> type) {
+        for (ElasticsearchPersistentProperty property : persistentEntity(type)) {
+            Object value = object.get(property.getFieldName());
+            if (value instanceof Map<?, ?> nested && property.isEntity()) {
+                addExplicitNulls(asFields(nested), property.getActualType());
+            } else if (value == null) {
+                object.put(property.getFieldName(), null);
+            }
+        }
+    }
+
+    private ElasticsearchPersistentEntity<?> persistentEntity(Class<?> type) {
+        return elasticsearchTemplate.getElasticsearchConverter().getMappingContext()
+                                    .getRequiredPersistentEntity(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asFields(Map<?, ?> object) {
+        return (Map<String, Object>) object;
+    }
+}
@@ -0,0 +1,77 @@
+package com.noir.restaurant.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.annotations.Query;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Logs any RestaurantRepository call slower than the threshold with the query as Elasticsearch received it
+@Aspect
+@Component
+@Slf4j
+public class SlowQueryLogAspect {
+
+    @Value("${app.search.slow-query-threshold:500ms}")
+    private Duration threshold;
+
+    @Around("execution(* *(..)) && target(com.noir.restaurant.repositories.RestaurantRepository)")
+    public Object logSlowQueries(ProceedingJoinPoint joinPoint) throws Throwable {
+        long startedAt = System.nanoTime();
+        Object result = joinPoint.proceed();
+        long tookNanos = System.nanoTime() - startedAt;
+
+        if (tookNanos >= threshold.toNanos()) {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            log.warn("Slow query {} took {} ms, {} hits, query: {}, parameters: {}",
+                     signature.getName(), Duration.ofNanos(tookNanos).toMillis(), hitCount(result),
+                     renderQuery(signature, joinPoint.getArgs()), describe(joinPoint.getArgs()));
+        }
+        return result;
+    }
+
+    private static String renderQuery(MethodSignature signature, Object[] args) {
+        Query query = AnnotationUtils.findAnnotation(signature.getMethod(), Query.class);
+        if (query == null) {
+            return "<derived from " + signature.getName() + ">";
+        }
+        return RestaurantQueries.render(query.value(), args);
+    }
+
+    private static String describe(Object[] args) {
+        return Arrays.stream(args)
+                     .map(arg -> arg instanceof Pageable pageable
+                             ? "page " + pageable.getPageNumber() + " size " + pageable.getPageSize()
+                             : String.valueOf(arg))
+                     .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static long hitCount(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getTotalElements();
+        }
+        if (result instanceof SearchHits<?> searchHits) {
+            return searchHits.getTotalHits();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
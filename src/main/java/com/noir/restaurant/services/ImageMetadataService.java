@@ -0,0 +1,9 @@
+package com.noir.restaurant.services;
+
+import com.noir.restaurant.domain.ImageMetadata;
+
+import java.util.Optional;
+
+public interface ImageMetadataService {
+    Optional<ImageMetadata> getMetadata(String fileName);
+}
@@ -0,0 +1,12 @@
+package com.noir.restaurant.services;
+
+import org.springframework.core.io.Resource;
+
+import java.util.Optional;
+
+public interface PhotoCacheService {
+
+    Optional<Resource> getPhotoAsResource(String fileName);
+
+    void evict(String fileName);
+}
@@ -1,13 +1,23 @@
 package com.noir.restaurant.services;
 
+import com.noir.restaurant.domain.PhotoUploadResult;
+import com.noir.restaurant.domain.UploadedPhoto;
 import com.noir.restaurant.domain.entities.Photo;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 public interface PhotoService {
     Photo uploadPhoto(MultipartFile file);
 
+    UploadedPhoto uploadPhoto(InputStream inputStream, long contentLength);
+
+    List<PhotoUploadResult> uploadPhotos(List<MultipartFile> files);
+
+    List<Photo> resolvePhotos(List<String> photoIds);
+
     Optional<Resource> getPhotoAsResource(String id);
 }
@@ -0,0 +1,14 @@
+package com.noir.restaurant.services;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveRestaurantService {
+    Flux<Restaurant> searchRestaurants(String query, Float minRating, Float latitude,
+                                       Float longitude, Float radius,
+                                       Pageable pageable);
+
+    Mono<Restaurant> getRestaurant(String id);
+}
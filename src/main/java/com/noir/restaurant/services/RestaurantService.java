@@ -1,6 +1,7 @@
 package com.noir.restaurant.services;
 
 import com.noir.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.noir.restaurant.domain.RestaurantPatchRequest;
 import com.noir.restaurant.domain.entities.Restaurant;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,7 +17,12 @@ public interface RestaurantService {
 
     Optional<Restaurant> getRestaurant(String id);
 
+    // Without the full review list, see Restaurant.latestReviews
+    Optional<Restaurant> getRestaurantDetail(String id);
+
     Restaurant updateRestaurant(String id, RestaurantCreateUpdateRequest request);
 
+    Restaurant patchRestaurant(String id, RestaurantPatchRequest request);
+
     void deleteRestaurant(String id);
 }
@@ -0,0 +1,16 @@
+package com.noir.restaurant.services;
+
+import com.noir.restaurant.domain.RestaurantView;
+import com.noir.restaurant.domain.entities.Restaurant;
+
+import java.util.Optional;
+
+public interface RestaurantViewService {
+    boolean isEnabled();
+
+    Optional<RestaurantView> getView(String restaurantId);
+
+    void refresh(Restaurant restaurant);
+
+    void evict(String restaurantId);
+}
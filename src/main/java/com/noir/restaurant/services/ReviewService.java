@@ -1,6 +1,7 @@
 package com.noir.restaurant.services;
 
 import com.noir.restaurant.domain.ReviewCreateUpdateRequest;
+import com.noir.restaurant.domain.entities.Restaurant;
 import com.noir.restaurant.domain.entities.Review;
 import com.noir.restaurant.domain.entities.User;
 import org.springframework.data.domain.Page;
@@ -13,8 +14,12 @@ public interface ReviewService {
 
     Page<Review> listReviews(String restaurantId, Pageable pageable);
 
+    Page<Review> listReviews(Restaurant restaurant, Pageable pageable);
+
     Optional<Review> getReview(String restaurantId, String reviewId);
 
+    Optional<Review> getReview(Restaurant restaurant, String reviewId);
+
     Review updateReview(User author, String restaurantId, String reviewId,
                         ReviewCreateUpdateRequest review);
 
@@ -0,0 +1,8 @@
+package com.noir.restaurant.services;
+
+import com.noir.restaurant.domain.SearchProfile;
+
+public interface SearchProfilingService {
+    SearchProfile profileSearch(String query, Float minRating, Float latitude, Float longitude,
+                                Float radius, int size);
+}
@@ -1,13 +1,28 @@
 package com.noir.restaurant.services;
 
+import com.noir.restaurant.domain.StoredFile;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface StorageService {
 
     String store(MultipartFile file, String fileName);
 
+    StoredFile store(InputStream inputStream, String fileName, long declaredSize);
+
     Optional<Resource> loadAsResource(String fileName);
+
+    List<String> listFileNames();
+
+    // Newest first, at most limit names
+    List<String> listNewestFileNames(int limit);
+
+    Optional<Instant> getLastModified(String fileName);
+
+    boolean delete(String fileName);
 }
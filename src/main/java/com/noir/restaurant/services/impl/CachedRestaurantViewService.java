@@ -0,0 +1,143 @@
+package com.noir.restaurant.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.noir.restaurant.domain.RestaurantView;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.mappers.RestaurantMapper;
+import com.noir.restaurant.services.RestaurantViewService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+// Restaurant detail responses rendered once per document version and served as bytes
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CachedRestaurantViewService implements RestaurantViewService {
+
+    private static final Comparator<SeqNoPrimaryTerm> VERSION_ORDER = Comparator
+            .comparingLong(SeqNoPrimaryTerm::primaryTerm)
+            .thenComparingLong(SeqNoPrimaryTerm::sequenceNumber);
+
+    private final RestaurantDetails restaurantDetails;
+    private final RestaurantMapper restaurantMapper;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.restaurant-views.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.restaurant-views.max-bytes:33554432}")
+    private long maxBytes;
+
+    // Bounds staleness when another instance wrote the restaurant
+    @Value("${app.restaurant-views.ttl:30s}")
+    private Duration timeToLive;
+
+    @Value("${app.restaurant-views.gzip:true}")
+    private boolean gzipEnabled;
+
+    @Value("${app.restaurant-views.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private Cache<String, RestaurantView> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                        .maximumWeight(maxBytes)
+                        .weigher((String id, RestaurantView view) -> weight(view))
+                        .expireAfterWrite(timeToLive)
+                        .recordStats()
+                        .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "restaurant-views");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Optional<RestaurantView> getView(String restaurantId) {
+        RestaurantView view = cache.getIfPresent(restaurantId);
+        if (view != null) {
+            return Optional.of(view);
+        }
+        return restaurantDetails.find(restaurantId).map(this::store);
+    }
+
+    @Override
+    public void refresh(Restaurant restaurant) {
+        if (enabled) {
+            store(restaurant);
+        }
+    }
+
+    @Override
+    public void evict(String restaurantId) {
+        cache.invalidate(restaurantId);
+    }
+
+    private RestaurantView store(Restaurant restaurant) {
+        RestaurantView rendered = render(restaurant);
+        // Writes can finish out of order, an older version never replaces a newer one
+        return cache.asMap().merge(restaurant.getId(), rendered,
+                                   (current, candidate) -> isNewer(candidate, current)
+                                           ? candidate
+                                           : current);
+    }
+
+    private RestaurantView render(Restaurant restaurant) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(restaurantMapper.toRestaurantDto(restaurant));
+            return RestaurantView.builder()
+                                 .restaurantId(restaurant.getId())
+                                 .version(restaurant.getSeqNoPrimaryTerm())
+                                 .json(json)
+                                 .gzippedJson(gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null)
+                                 .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render restaurant " + restaurant.getId(), e);
+        }
+    }
+
+    private static boolean isNewer(RestaurantView candidate, RestaurantView current) {
+        if (candidate.getVersion() == null || current.getVersion() == null) {
+            return true;
+        }
+        return VERSION_ORDER.compare(candidate.getVersion(), current.getVersion()) >= 0;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static int weight(RestaurantView view) {
+        int gzippedLength = view.getGzippedJson() == null ? 0 : view.getGzippedJson().length;
+        return view.getJson().length + gzippedLength;
+    }
+}
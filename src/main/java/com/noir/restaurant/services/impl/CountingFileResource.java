@@ -0,0 +1,81 @@
+package com.noir.restaurant.services.impl;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+// Counts bytes as they are read, so a resource that is only looked up or measured adds nothing
+class CountingFileResource extends FileSystemResource {
+
+    private final Counter bytesRead;
+
+    CountingFileResource(Path path, Counter bytesRead) {
+        super(path);
+        this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FilterInputStream(super.getInputStream()) {
+
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) {
+                    bytesRead.increment();
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int count = super.read(bytes, offset, length);
+                if (count > 0) {
+                    bytesRead.increment(count);
+                }
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        ReadableByteChannel channel = super.readableChannel();
+        return new ReadableByteChannel() {
+
+            @Override
+            public int read(ByteBuffer buffer) throws IOException {
+                int count = channel.read(buffer);
+                if (count > 0) {
+                    bytesRead.increment(count);
+                }
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    // Zero-copy writers (the reactive profile) send the file by path and never open a stream
+    @Override
+    public File getFile() {
+        File file = super.getFile();
+        bytesRead.increment(file.length());
+        return file;
+    }
+}
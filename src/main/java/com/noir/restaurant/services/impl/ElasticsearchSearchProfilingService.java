@@ -0,0 +1,121 @@
+package com.noir.restaurant.services.impl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.QueryBreakdown;
+import co.elastic.clients.elasticsearch.core.search.QueryProfile;
+import co.elastic.clients.elasticsearch.core.search.SearchProfile;
+import co.elastic.clients.elasticsearch.core.search.ShardProfile;
+import com.noir.restaurant.domain.QueryTiming;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.repositories.RestaurantQueries;
+import com.noir.restaurant.services.SearchProfilingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Re-runs a search with the Profile API, only wired in when an operator switches it on
+@Service
+@RequiredArgsConstructor
+@Profile("!in-memory")
+@ConditionalOnProperty(name = "app.search.profiling.enabled", havingValue = "true")
+public class ElasticsearchSearchProfilingService implements SearchProfilingService {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Override
+    public com.noir.restaurant.domain.SearchProfile profileSearch(String query, Float minRating,
+                                                                  Float latitude, Float longitude,
+                                                                  Float radius, int size) {
+        String renderedQuery = renderQuery(query, minRating, latitude, longitude, radius);
+        String index = elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class).getIndexName();
+
+        SearchResponse<Void> response;
+        try {
+            response = elasticsearchClient.search(search -> search
+                    .index(index)
+                    .size(size)
+                    .profile(true)
+                    .query(Query.of(q -> q.withJson(new StringReader(renderedQuery)))), Void.class);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to profile search", e);
+        }
+
+        List<QueryTiming> timings = new ArrayList<>();
+        for (ShardProfile shard : response.profile().shards()) {
+            for (SearchProfile search : shard.searches()) {
+                for (QueryProfile queryProfile : search.query()) {
+                    QueryTiming timing = toTiming(queryProfile);
+                    timing.setShard(shard.id());
+                    timings.add(timing);
+                }
+            }
+        }
+
+        return com.noir.restaurant.domain.SearchProfile
+                .builder()
+                .query(renderedQuery)
+                .tookMs(response.took())
+                .totalHits(response.hits().total() == null ? -1 : response.hits().total().value())
+                .timings(timings)
+                .build();
+    }
+
+    // Same branching as RestaurantServiceImpl.searchRestaurants, so the profiled query is the one users run
+    private String renderQuery(String query, Float minRating, Float latitude, Float longitude,
+                               Float radius) {
+        if (null != minRating && (null == query || query.isEmpty())) {
+            return RestaurantQueries.render(RestaurantQueries.MIN_RATING, minRating);
+        }
+
+        Float searchMinRating = minRating == null ? 0f : minRating;
+
+        if (null != query && !query.trim().isEmpty()) {
+            return RestaurantQueries.render(RestaurantQueries.QUERY_AND_MIN_RATING, query,
+                                            searchMinRating);
+        }
+
+        if (null != latitude && null != longitude && null != radius) {
+            return RestaurantQueries.render(RestaurantQueries.LOCATION_NEAR, latitude, longitude,
+                                            radius);
+        }
+
+        return RestaurantQueries.MATCH_ALL;
+    }
+
+    private static QueryTiming toTiming(QueryProfile profile) {
+        QueryBreakdown breakdown = profile.breakdown();
+        Map<String, Long> breakdownNanos = new LinkedHashMap<>();
+        breakdownNanos.put("create_weight", breakdown.createWeight());
+        breakdownNanos.put("build_scorer", breakdown.buildScorer());
+        breakdownNanos.put("next_doc", breakdown.nextDoc());
+        breakdownNanos.put("advance", breakdown.advance());
+        breakdownNanos.put("match", breakdown.match());
+        breakdownNanos.put("score", breakdown.score());
+
+        List<QueryTiming> children = new ArrayList<>();
+        for (QueryProfile child : profile.children()) {
+            children.add(toTiming(child));
+        }
+
+        return QueryTiming.builder()
+                          .type(profile.type())
+                          .description(profile.description())
+                          .timeMs(profile.timeInNanos() / 1_000_000d)
+                          .breakdownNanos(breakdownNanos)
+                          .children(children)
+                          .build();
+    }
+}
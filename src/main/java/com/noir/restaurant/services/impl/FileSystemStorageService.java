@@ -1,37 +1,85 @@
 package com.noir.restaurant.services.impl;
 
+import com.noir.restaurant.domain.ImageFormat;
+import com.noir.restaurant.domain.StoredFile;
+import com.noir.restaurant.exceptions.InvalidPhotoException;
 import com.noir.restaurant.exceptions.StorageException;
+import com.noir.restaurant.exceptions.UploadCapacityExceededException;
 import com.noir.restaurant.services.StorageService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
+@Timed(value = "app.storage", histogram = true)
 public class FileSystemStorageService implements StorageService {
 
+    private static final Comparator<ModifiedFile> OLDEST_FIRST = Comparator
+            .comparing(ModifiedFile::lastModified)
+            .thenComparing(ModifiedFile::fileName);
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.storage.location:uploads}")
     private String storageLocation;
 
+    @Value("${app.storage.max-file-size:10485760}")
+    private long maxFileSize;
+
+    @Value("${app.storage.max-concurrent-uploads:8}")
+    private int maxConcurrentUploads;
+
+    @Value("${app.storage.upload-permit-timeout:2s}")
+    private Duration uploadPermitTimeout;
+
     private Path rootLocation;
 
+    private Semaphore uploadPermits;
+
+    private Counter bytesWritten;
+    private Counter bytesRead;
+
     @PostConstruct
     public void init() {
         rootLocation = Paths.get(storageLocation);
+        uploadPermits = new Semaphore(maxConcurrentUploads);
+        bytesWritten = storageBytes("written");
+        bytesRead = storageBytes("read");
         try {
             Files.createDirectories(rootLocation);
         } catch (IOException e) {
@@ -47,17 +95,11 @@ public class FileSystemStorageService implements StorageService {
             }
             String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
             String finalFileName = fileName + "." + extension;
-
-            Path destinationFile = rootLocation
-                    .resolve(Paths.get(finalFileName))
-                    .normalize()
-                    .toAbsolutePath();
-            if (!destinationFile.getParent().equals(rootLocation.toAbsolutePath())) {
-                throw new StorageException("Cannot store file outside specified directory");
-            }
+            Path destinationFile = resolveInsideRoot(finalFileName);
 
             try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+                bytesWritten.increment(Files.copy(inputStream, destinationFile,
+                                                  StandardCopyOption.REPLACE_EXISTING));
             }
 
             return finalFileName;
@@ -67,20 +109,192 @@ public class FileSystemStorageService implements StorageService {
     }
 
     @Override
-    public Optional<Resource> loadAsResource(String fileName) {
+    public StoredFile store(InputStream inputStream, String fileName, long declaredSize) {
+        if (declaredSize > maxFileSize) {
+            throw InvalidPhotoException.stackless(
+                    "Photo exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+
+        acquireUploadPermit();
+        Path tempFile = null;
         try {
-            Path file = rootLocation.resolve(fileName);
+            // Bytes go straight into a hidden temp file next to the destination, then get renamed
+            tempFile = Files.createTempFile(rootLocation, ".upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            byte[] buffer = new byte[8192];
+            int headerLength = inputStream.readNBytes(buffer, 0, ImageFormat.SIGNATURE_LENGTH);
+            ImageFormat format = ImageFormat
+                    .detect(buffer, headerLength)
+                    .orElseThrow(() -> InvalidPhotoException.UNSUPPORTED_FORMAT);
+
+            long size = headerLength;
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                digest.update(buffer, 0, headerLength);
+                outputStream.write(buffer, 0, headerLength);
+
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileSize) {
+                        throw InvalidPhotoException.stackless(
+                                "Photo exceeds the maximum size of " + maxFileSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+
+            String finalFileName = fileName + "." + format.getExtension();
+            Path destinationFile = resolveInsideRoot(finalFileName);
+
+            Files.move(tempFile, destinationFile, StandardCopyOption.ATOMIC_MOVE);
+            tempFile = null;
+            bytesWritten.increment(size);
+
+            return StoredFile.builder()
+                             .fileName(finalFileName)
+                             .size(size)
+                             .digest(Base64.getEncoder().encodeToString(digest.digest()))
+                             .format(format)
+                             .build();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new StorageException("Failed to store file", e);
+        } finally {
+            uploadPermits.release();
+            deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public Optional<Resource> loadAsResource(String fileName) {
+        Path file = rootLocation.resolve(fileName);
+
+        Resource resource = new CountingFileResource(file, bytesRead);
+
+        if (resource.exists() || resource.isReadable()) {
+            return Optional.of(resource);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<String> listFileNames() {
+        // Hidden files are in-flight uploads and bookkeeping, never photos
+        try (Stream<Path> files = Files.list(rootLocation)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    .filter(fileName -> !fileName.startsWith("."))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new StorageException("Failed to list stored files", e);
+        }
+    }
 
-            Resource resource = new UrlResource(file.toUri());
+    @Override
+    public List<String> listNewestFileNames(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
 
-            if (resource.exists() || resource.isReadable()) {
-                return Optional.of(resource);
-            } else {
-                return Optional.empty();
+        // One pass and one stat per file, the heap only ever holds the newest limit of them
+        PriorityQueue<ModifiedFile> newest = new PriorityQueue<>(limit + 1, OLDEST_FIRST);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(rootLocation)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (fileName.startsWith(".")) {
+                    continue;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    // Deleted since the directory was read
+                    continue;
+                }
+                if (attributes.isRegularFile()) {
+                    newest.add(new ModifiedFile(fileName, attributes.lastModifiedTime()));
+                    if (newest.size() > limit) {
+                        newest.poll();
+                    }
+                }
             }
-        } catch (MalformedURLException e) {
-            log.warn("Failed to read file: {}", fileName, e);
+        } catch (IOException e) {
+            throw new StorageException("Failed to list stored files", e);
+        }
+
+        List<String> fileNames = new ArrayList<>(newest.size());
+        while (!newest.isEmpty()) {
+            fileNames.add(newest.poll().fileName());
+        }
+        Collections.reverse(fileNames);
+        return fileNames;
+    }
+
+    @Override
+    public Optional<Instant> getLastModified(String fileName) {
+        Path file = resolveInsideRoot(fileName);
+        try {
+            return Optional.of(Files.getLastModifiedTime(file).toInstant());
+        } catch (IOException e) {
             return Optional.empty();
         }
     }
+
+    @Override
+    public boolean delete(String fileName) {
+        Path file = resolveInsideRoot(fileName);
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete file", e);
+        }
+    }
+
+    private record ModifiedFile(String fileName, FileTime lastModified) {
+    }
+
+    private Path resolveInsideRoot(String fileName) {
+        Path file = rootLocation
+                .resolve(Paths.get(fileName))
+                .normalize()
+                .toAbsolutePath();
+        if (!file.getParent().equals(rootLocation.toAbsolutePath())) {
+            throw new StorageException("Cannot access file outside specified directory");
+        }
+        return file;
+    }
+
+    private void acquireUploadPermit() {
+        try {
+            if (!uploadPermits.tryAcquire(uploadPermitTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw UploadCapacityExceededException.stackless("Too many concurrent uploads");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UploadCapacityExceededException("Interrupted while waiting for an upload slot", e);
+        }
+    }
+
+    private Counter storageBytes(String direction) {
+        return Counter.builder("app.storage.bytes")
+                      .description("Bytes moved between the API and photo storage")
+                      .baseUnit("bytes")
+                      .tag("direction", direction)
+                      .register(meterRegistry);
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary upload: {}", file, e);
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.noir.restaurant.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.noir.restaurant.domain.GeoLocation;
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.services.GeoLocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Primary
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.geocoding.gazetteer-file")
+public class GazetteerGeoLocationService implements GeoLocationService {
+
+    private final RandomLondonGeoLocationService fallbackGeoLocationService;
+
+    @Value("${app.geocoding.gazetteer-file}")
+    private String gazetteerFile;
+
+    @Value("${app.geocoding.cache-size:50000}")
+    private long cacheSize;
+
+    private PostcodeGazetteer gazetteer;
+
+    private Cache<String, GeoLocation> cache;
+
+    @PostConstruct
+    public void init() {
+        try {
+            gazetteer = PostcodeGazetteer.open(Paths.get(gazetteerFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open gazetteer " + gazetteerFile, e);
+        }
+        cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        log.info("Loaded gazetteer with {} postcodes from {}", gazetteer.size(), gazetteerFile);
+    }
+
+    @Override
+    public GeoLocation geoLocate(Address address) {
+        return cache.get(cacheKey(address), key -> gazetteer
+                .lookup(address.getPostalCode())
+                .orElseGet(() -> {
+                    log.debug("Postcode not in gazetteer: {}", address.getPostalCode());
+                    return fallbackGeoLocationService.geoLocate(address);
+                }));
+    }
+
+    private String cacheKey(Address address) {
+        return Stream.of(address.getStreetNumber(), address.getStreetName(), address.getUnit(),
+                         address.getCity(), PostcodeGazetteer.normalize(address.getPostalCode()),
+                         address.getCountry())
+                     .map(part -> Objects.toString(part, "")
+                                         .trim()
+                                         .replaceAll("\\s+", " ")
+                                         .toLowerCase(Locale.ROOT))
+                     .collect(Collectors.joining("|"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.noir.restaurant.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.noir.restaurant.domain.ImageMetadata;
+import com.noir.restaurant.services.ImageMetadataService;
+import com.noir.restaurant.services.StorageService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Optional;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ImageIoMetadataService implements ImageMetadataService {
+
+    private static final int PLACEHOLDER_SIZE = 20;
+    private static final Duration FOREVER = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final StorageService storageService;
+
+    @Value("${app.photo-metadata.cache-size:10000}")
+    private long cacheSize;
+
+    // Missing files and formats ImageIO cannot read (WebP) are cached too, for a while
+    @Value("${app.photo-metadata.miss-time-to-live:10m}")
+    private Duration missTimeToLive;
+
+    private Cache<String, Optional<ImageMetadata>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                        .maximumSize(cacheSize)
+                        .expireAfter(Expiry.creating((String fileName, Optional<ImageMetadata> metadata) ->
+                                                             metadata.isPresent() ? FOREVER : missTimeToLive))
+                        .build();
+    }
+
+    @Override
+    public Optional<ImageMetadata> getMetadata(String fileName) {
+        return cache.get(fileName, this::probe);
+    }
+
+    private Optional<ImageMetadata> probe(String fileName) {
+        Optional<Resource> resource = storageService.loadAsResource(fileName);
+        if (resource.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try (ImageInputStream input = openImageInputStream(resource.get())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Dimensions come from the image header, no pixels are decoded here
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                return Optional.of(ImageMetadata.builder()
+                                                .width(width)
+                                                .height(height)
+                                                .placeholder(placeholder(reader, width, height))
+                                                .build());
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read image metadata: {}", fileName, e);
+            return Optional.empty();
+        }
+    }
+
+    private ImageInputStream openImageInputStream(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            return new FileImageInputStream(resource.getFile());
+        }
+        return new MemoryCacheImageInputStream(resource.getInputStream());
+    }
+
+    private String placeholder(ImageReader reader, int width, int height) {
+        try {
+            // Subsample while decoding so large photos never get fully expanded in memory
+            ImageReadParam param = reader.getDefaultReadParam();
+            int step = Math.max(1, Math.max(width, height) / (PLACEHOLDER_SIZE * 4));
+            param.setSourceSubsampling(step, step, 0, 0);
+            BufferedImage sampled = reader.read(0, param);
+
+            double scale = (double) PLACEHOLDER_SIZE / Math.max(width, height);
+            int placeholderWidth = Math.max(1, (int) Math.round(width * scale));
+            int placeholderHeight = Math.max(1, (int) Math.round(height * scale));
+
+            BufferedImage thumbnail = new BufferedImage(
+                    placeholderWidth, placeholderHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = thumbnail.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                      RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(sampled, 0, 0, placeholderWidth, placeholderHeight, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(thumbnail, "png", output);
+            return "data:image/png;base64," + Base64.getEncoder().encodeToString(output.toByteArray());
+        } catch (IOException e) {
+            log.warn("Failed to build image placeholder", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.noir.restaurant.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.noir.restaurant.services.PhotoCacheService;
+import com.noir.restaurant.services.StorageService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Optional;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OffHeapPhotoCacheService implements PhotoCacheService {
+
+    private final StorageService storageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.photo-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.photo-cache.max-entry-bytes:2097152}")
+    private long maxEntryBytes;
+
+    // Photo bytes live in direct buffers so hot images do not count against the heap
+    private Cache<String, ByteBuffer> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                        .maximumWeight(maxBytes)
+                        .weigher((String fileName, ByteBuffer buffer) -> buffer.capacity())
+                        .recordStats()
+                        .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "photos");
+        Gauge.builder("app.photo.cache.bytes", cache, OffHeapPhotoCacheService::weightedSize)
+             .description("Direct memory held by cached photos")
+             .baseUnit("bytes")
+             .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Resource> getPhotoAsResource(String fileName) {
+        ByteBuffer cached = cache.getIfPresent(fileName);
+        if (cached != null) {
+            return Optional.of(new ByteBufferResource(cached, fileName));
+        }
+
+        // One storage lookup per miss, missing files and ones too large to cache end here
+        Optional<Resource> resource = storageService.loadAsResource(fileName);
+        ByteBuffer loaded = resource.map(photo -> load(fileName, photo)).orElse(null);
+        if (loaded == null) {
+            return resource;
+        }
+        // Concurrent misses for the same photo keep whichever copy got in first
+        ByteBuffer winner = cache.asMap().putIfAbsent(fileName, loaded);
+        return Optional.of(new ByteBufferResource(winner != null ? winner : loaded, fileName));
+    }
+
+    @Override
+    public void evict(String fileName) {
+        cache.invalidate(fileName);
+    }
+
+    private ByteBuffer load(String fileName, Resource resource) {
+        try {
+            long size = resource.contentLength();
+            if (size > maxEntryBytes) {
+                return null;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+            try (ReadableByteChannel channel = resource.readableChannel()) {
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+            }
+            buffer.flip();
+            return buffer.asReadOnlyBuffer();
+        } catch (IOException e) {
+            log.warn("Failed to cache photo: {}", fileName, e);
+            return null;
+        }
+    }
+
+    private static double weightedSize(Cache<String, ByteBuffer> cache) {
+        return cache.policy()
+                    .eviction()
+                    .map(eviction -> eviction.weightedSize().orElse(0L))
+                    .orElse(0L);
+    }
+}
@@ -0,0 +1,247 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.repositories.RestaurantQueries;
+import com.noir.restaurant.services.PhotoCacheService;
+import com.noir.restaurant.services.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.StringQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/*
+ * Mark-and-sweep over the upload directory: a file survives if any restaurant or review references
+ * it. A photo can be attached after the mark has passed its restaurant, so each candidate is looked
+ * up again right before it is deleted. Deletes are permanent, so the collector only runs when
+ * app.photo-gc.enabled is set.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Lazy(false)
+@Profile("!in-memory")
+@ConditionalOnProperty(name = "app.photo-gc.enabled", havingValue = "true")
+public class PhotoGarbageCollector {
+
+    private static final String CYCLE_STARTED_AT = "cycleStartedAt";
+    private static final String SWEEP_CURSOR = "sweepCursor";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final StorageService storageService;
+    private final PhotoCacheService photoCacheService;
+
+    @Value("${app.photo-gc.grace-period:24h}")
+    private Duration gracePeriod;
+
+    @Value("${app.photo-gc.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.photo-gc.page-delay:200ms}")
+    private Duration pageDelay;
+
+    @Value("${app.photo-gc.deletes-per-second:20}")
+    private int deletesPerSecond;
+
+    @Value("${app.photo-gc.checkpoint-file:${app.storage.location:uploads}/.photo-gc-checkpoint}")
+    private String checkpointFile;
+
+    @Scheduled(initialDelayString = "${app.photo-gc.initial-delay:10m}",
+            fixedDelayString = "${app.photo-gc.interval:6h}")
+    public void collect() {
+        Properties checkpoint = loadCheckpoint();
+        if (checkpoint.isEmpty()) {
+            checkpoint.setProperty(CYCLE_STARTED_AT, String.valueOf(Instant.now().toEpochMilli()));
+            saveCheckpoint(checkpoint);
+        }
+
+        // Anything uploaded after the cycle started is out of reach of this sweep
+        Instant cutoff = Instant
+                .ofEpochMilli(Long.parseLong(checkpoint.getProperty(CYCLE_STARTED_AT)))
+                .minus(gracePeriod);
+
+        Set<String> referenced;
+        try {
+            referenced = markReferencedPhotos();
+        } catch (RuntimeException e) {
+            // Never sweep against an incomplete mark, that would delete live photos
+            log.warn("Photo GC mark phase failed, skipping sweep", e);
+            return;
+        }
+
+        try {
+            int deleted = sweep(referenced, cutoff, checkpoint);
+            log.info("Photo GC finished: {} referenced photos, {} orphans deleted",
+                     referenced.size(), deleted);
+            deleteCheckpoint();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Photo GC interrupted, will resume from checkpoint");
+        }
+    }
+
+    private Set<String> markReferencedPhotos() {
+        IndexCoordinates index = elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class);
+        Duration keepAlive = pageDelay.plusMinutes(1);
+        String pointInTimeId = elasticsearchOperations.openPointInTime(index, keepAlive);
+
+        Set<String> referenced = new HashSet<>();
+        try {
+            List<Object> searchAfter = null;
+            while (true) {
+                Query query = StringQuery
+                        .builder("{\"match_all\": {}}")
+                        .withPointInTime(new Query.PointInTime(pointInTimeId, keepAlive))
+                        .withSort(Sort.by("_shard_doc"))
+                        .withSearchAfter(searchAfter)
+                        .withMaxResults(pageSize)
+                        .withSourceFilter(new FetchSourceFilterBuilder()
+                                                  .withIncludes("photos.url", "reviews.photos.url")
+                                                  .build())
+                        .build();
+
+                SearchHits<Restaurant> hits = elasticsearchOperations.search(query, Restaurant.class);
+                if (!hits.hasSearchHits()) {
+                    return referenced;
+                }
+
+                for (SearchHit<Restaurant> hit : hits) {
+                    collectPhotoUrls(hit.getContent(), referenced);
+                }
+
+                pointInTimeId = hits.getPointInTimeId();
+                searchAfter = hits.getSearchHit(hits.getSearchHits().size() - 1).getSortValues();
+                pause(pageDelay);
+            }
+        } finally {
+            elasticsearchOperations.closePointInTime(pointInTimeId);
+        }
+    }
+
+    private int sweep(Set<String> referenced, Instant cutoff, Properties checkpoint)
+            throws InterruptedException {
+        String cursor = checkpoint.getProperty(SWEEP_CURSOR, "");
+        long deleteInterval = 1000L / Math.max(1, deletesPerSecond);
+        int deleted = 0;
+
+        for (String fileName : storageService.listFileNames()) {
+            if (fileName.compareTo(cursor) <= 0 || referenced.contains(fileName)) {
+                continue;
+            }
+
+            boolean old = storageService
+                    .getLastModified(fileName)
+                    .map(lastModified -> lastModified.isBefore(cutoff))
+                    .orElse(false);
+            if (!old || isReferenced(fileName)) {
+                continue;
+            }
+
+            if (storageService.delete(fileName)) {
+                photoCacheService.evict(fileName);
+                deleted++;
+                log.debug("Photo GC deleted orphan: {}", fileName);
+            }
+
+            checkpoint.setProperty(SWEEP_CURSOR, fileName);
+            saveCheckpoint(checkpoint);
+            Thread.sleep(deleteInterval);
+        }
+        return deleted;
+    }
+
+    private boolean isReferenced(String fileName) {
+        Query query = new StringQuery(RestaurantQueries.render(RestaurantQueries.REFERENCES_PHOTO, fileName));
+        return elasticsearchOperations.count(query, Restaurant.class) > 0;
+    }
+
+    private void collectPhotoUrls(Restaurant restaurant, Set<String> referenced) {
+        addPhotoUrls(restaurant.getPhotos(), referenced);
+        if (restaurant.getReviews() != null) {
+            for (Review review : restaurant.getReviews()) {
+                addPhotoUrls(review.getPhotos(), referenced);
+            }
+        }
+    }
+
+    private void addPhotoUrls(List<Photo> photos, Set<String> referenced) {
+        if (photos == null) {
+            return;
+        }
+        for (Photo photo : photos) {
+            referenced.add(photo.getUrl());
+        }
+    }
+
+    private void pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during photo GC mark phase", e);
+        }
+    }
+
+    private Properties loadCheckpoint() {
+        Properties checkpoint = new Properties();
+        Path path = Paths.get(checkpointFile);
+        if (Files.exists(path)) {
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                checkpoint.load(inputStream);
+            } catch (IOException e) {
+                log.warn("Failed to read photo GC checkpoint, starting a new cycle", e);
+                checkpoint.clear();
+            }
+        }
+        return checkpoint;
+    }
+
+    private void saveCheckpoint(Properties checkpoint) {
+        Path path = Paths.get(checkpointFile);
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                checkpoint.store(outputStream, "photo gc checkpoint");
+            }
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write photo GC checkpoint", e);
+        }
+    }
+
+    private void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(Paths.get(checkpointFile));
+        } catch (IOException e) {
+            log.warn("Failed to remove photo GC checkpoint", e);
+        }
+    }
+}
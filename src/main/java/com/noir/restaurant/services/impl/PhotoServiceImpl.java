@@ -1,36 +1,142 @@
 package com.noir.restaurant.services.impl;
 
+import com.noir.restaurant.domain.PhotoUploadResult;
+import com.noir.restaurant.domain.StoredFile;
+import com.noir.restaurant.domain.UploadedPhoto;
 import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.exceptions.BaseException;
+import com.noir.restaurant.exceptions.InvalidPhotoException;
+import com.noir.restaurant.exceptions.StorageException;
+import com.noir.restaurant.services.ImageMetadataService;
 import com.noir.restaurant.services.PhotoService;
 import com.noir.restaurant.services.StorageService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
+@Timed(value = "app.service", histogram = true)
+@Slf4j
 @RequiredArgsConstructor
 public class PhotoServiceImpl implements PhotoService {
 
     private final StorageService storageService;
+    private final ImageMetadataService imageMetadataService;
+    private final StructuredFanOut fanOut;
+
+    @Value("${app.storage.max-batch-size:20}")
+    private int maxBatchSize;
 
     @Override
     public Photo uploadPhoto(MultipartFile file) {
         String photoId = UUID.randomUUID().toString();
         String url = storageService.store(file, photoId);
 
-        return Photo.builder()
-                    .url(url)
-                    .uploadDate(LocalDateTime.now())
-                    .build();
+        return toPhoto(url, LocalDateTime.now());
+    }
+
+    @Override
+    public UploadedPhoto uploadPhoto(InputStream inputStream, long contentLength) {
+        String photoId = UUID.randomUUID().toString();
+        StoredFile storedFile = storageService.store(inputStream, photoId, contentLength);
+
+        return UploadedPhoto.builder()
+                            .photo(toPhoto(storedFile.getFileName(), LocalDateTime.now()))
+                            .digest(storedFile.getDigest())
+                            .build();
+    }
+
+    @Override
+    public List<PhotoUploadResult> uploadPhotos(List<MultipartFile> files) {
+        if (files.size() > maxBatchSize) {
+            throw InvalidPhotoException.stackless(
+                    "At most " + maxBatchSize + " photos can be uploaded at once");
+        }
+
+        // Every file is written on its own virtual thread, closing the executor waits for all of them
+        List<Future<Photo>> uploads = new ArrayList<>(files.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile file : files) {
+                uploads.add(executor.submit(() -> storePhoto(file)));
+            }
+        }
+
+        List<PhotoUploadResult> results = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            results.add(toUploadResult(files.get(i), uploads.get(i)));
+        }
+        return results;
+    }
+
+    @Override
+    public List<Photo> resolvePhotos(List<String> photoIds) {
+        // Each photo needs its header read from storage, so the lookups fan out
+        LocalDateTime now = LocalDateTime.now();
+        return fanOut.all(photoIds.stream()
+                                  .<Callable<Photo>>map(photoId -> () -> toPhoto(photoId, now))
+                                  .toList());
     }
 
     @Override
     public Optional<Resource> getPhotoAsResource(String id) {
         return storageService.loadAsResource(id);
     }
+
+    // Streamed like a raw upload, so batch files share its upload permits, size cap and format check
+    private Photo storePhoto(MultipartFile file) throws IOException {
+        String photoId = UUID.randomUUID().toString();
+        try (InputStream inputStream = file.getInputStream()) {
+            StoredFile storedFile = storageService.store(inputStream, photoId, file.getSize());
+            return toPhoto(storedFile.getFileName(), LocalDateTime.now());
+        }
+    }
+
+    private Photo toPhoto(String url, LocalDateTime uploadDate) {
+        Photo photo = Photo.builder()
+                           .url(url)
+                           .uploadDate(uploadDate)
+                           .build();
+
+        imageMetadataService.getMetadata(url).ifPresent(metadata -> {
+            photo.setWidth(metadata.getWidth());
+            photo.setHeight(metadata.getHeight());
+            photo.setPlaceholder(metadata.getPlaceholder());
+        });
+        return photo;
+    }
+
+    private PhotoUploadResult toUploadResult(MultipartFile file, Future<Photo> upload) {
+        PhotoUploadResult.PhotoUploadResultBuilder result = PhotoUploadResult
+                .builder()
+                .fileName(file.getOriginalFilename());
+        try {
+            return result.photo(upload.get()).build();
+        } catch (ExecutionException e) {
+            log.warn("Failed to upload photo: {}", file.getOriginalFilename(), e.getCause());
+            String error = e.getCause() instanceof BaseException
+                    ? e.getCause().getMessage()
+                    : "Failed to store file";
+            return result.error(error).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while storing photos", e);
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.GeoLocation;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/*
+ * Postcode centroids in a memory-mapped table, looked up by binary search without touching the heap.
+ *
+ * File layout (big endian): "GZT1", record count, then records sorted by key. Each record is the
+ * postcode packed into 8 bytes (upper case, no spaces, zero padded) followed by latitude and
+ * longitude as floats. Outward codes such as "W1D" may be stored as their own records and are
+ * used when the full postcode is unknown.
+ */
+public class PostcodeGazetteer {
+
+    private static final int MAGIC = 0x475A5431;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 16;
+    private static final int KEY_LENGTH = 8;
+    private static final int INWARD_CODE_LENGTH = 3;
+
+    private final MappedByteBuffer table;
+    private final int recordCount;
+
+    private PostcodeGazetteer(MappedByteBuffer table) {
+        this.table = table;
+        this.recordCount = table.getInt(4);
+    }
+
+    public static PostcodeGazetteer open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            table.order(ByteOrder.BIG_ENDIAN);
+            if (table.capacity() < HEADER_SIZE || table.getInt(0) != MAGIC) {
+                throw new IOException("Not a gazetteer file: " + file);
+            }
+            // A truncated copy would otherwise fail on the first lookup that lands past its end
+            if (table.capacity() != HEADER_SIZE + (long) table.getInt(4) * RECORD_SIZE) {
+                throw new IOException("Truncated gazetteer file: " + file);
+            }
+            return new PostcodeGazetteer(table);
+        }
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    public Optional<GeoLocation> lookup(String postalCode) {
+        String normalized = normalize(postalCode);
+        if (normalized.isEmpty() || normalized.length() > KEY_LENGTH) {
+            return Optional.empty();
+        }
+
+        Optional<GeoLocation> location = find(pack(normalized));
+        if (location.isEmpty() && normalized.length() > INWARD_CODE_LENGTH) {
+            String outwardCode = normalized.substring(0, normalized.length() - INWARD_CODE_LENGTH);
+            location = find(pack(outwardCode));
+        }
+        return location;
+    }
+
+    private Optional<GeoLocation> find(long key) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = HEADER_SIZE + middle * RECORD_SIZE;
+            int comparison = Long.compareUnsigned(table.getLong(offset), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return Optional.of(GeoLocation.builder()
+                                              .latitude((double) table.getFloat(offset + KEY_LENGTH))
+                                              .longitude((double) table.getFloat(offset + KEY_LENGTH + 4))
+                                              .build());
+            }
+        }
+        return Optional.empty();
+    }
+
+    static String normalize(String postalCode) {
+        if (postalCode == null) {
+            return "";
+        }
+        return postalCode.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+    }
+
+    private static long pack(String normalized) {
+        byte[] bytes = normalized.getBytes(StandardCharsets.US_ASCII);
+        long key = 0;
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            key = (key << 8) | (i < bytes.length ? bytes[i] & 0xFF : 0);
+        }
+        return key;
+    }
+
+    // Builds a gazetteer file from "postcode,latitude,longitude" lines
+    public static void compile(Path csvFile, Path gazetteerFile) throws IOException {
+        List<long[]> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",");
+                String normalized = columns.length == 3 ? normalize(columns[0]) : "";
+                if (normalized.isEmpty() || normalized.length() > KEY_LENGTH) {
+                    continue;
+                }
+                try {
+                    float latitude = Float.parseFloat(columns[1].trim());
+                    float longitude = Float.parseFloat(columns[2].trim());
+                    records.add(new long[]{pack(normalized), Float.floatToIntBits(latitude),
+                            Float.floatToIntBits(longitude)});
+                } catch (NumberFormatException e) {
+                    // header row or malformed line
+                }
+            }
+        }
+        records.sort((left, right) -> Long.compareUnsigned(left[0], right[0]));
+
+        try (OutputStream outputStream = Files.newOutputStream(gazetteerFile);
+             DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(MAGIC);
+            output.writeInt(records.size());
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            for (long[] entry : records) {
+                record.clear();
+                record.putLong(entry[0]).putInt((int) entry[1]).putInt((int) entry[2]);
+                output.write(record.array());
+            }
+        }
+    }
+}
@@ -5,7 +5,7 @@ import com.noir.restaurant.domain.entities.Address;
 import com.noir.restaurant.services.GeoLocationService;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class RandomLondonGeoLocationService implements GeoLocationService {
@@ -17,7 +17,7 @@ public class RandomLondonGeoLocationService implements GeoLocationService {
 
     @Override
     public GeoLocation geoLocate(Address address) {
-        Random random = new Random();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         double latitude = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
         double longitude = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
         return GeoLocation
@@ -0,0 +1,56 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.repositories.ReactiveRestaurantRepository;
+import com.noir.restaurant.services.ReactiveRestaurantService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveRestaurantServiceImpl implements ReactiveRestaurantService {
+
+    private final ReactiveRestaurantRepository restaurantRepository;
+    private final RestaurantDetails restaurantDetails;
+
+    @Override
+    public Flux<Restaurant> searchRestaurants(String query, Float minRating, Float latitude,
+                                              Float longitude, Float radius, Pageable pageable) {
+
+        if (null != minRating && (null == query || query.isEmpty())) {
+            return restaurantRepository.findByAverageRatingGreaterThanEqual(minRating, pageable);
+        }
+
+        Float searchMinRating = minRating == null ? 0f : minRating;
+
+        if (null != query && !query.trim().isEmpty()) {
+            return restaurantRepository.findByQueryAndMinRating(query, searchMinRating, pageable);
+        }
+
+        if (null != latitude && null != longitude && null != radius) {
+            return restaurantRepository.findByLocationNear(latitude, longitude, radius, pageable);
+        }
+
+        return restaurantRepository.findAllRestaurants(pageable);
+    }
+
+    @Override
+    public Mono<Restaurant> getRestaurant(String id) {
+        // Same read as RestaurantDetails.find, without blocking on the servlet repository
+        return restaurantRepository.findDetailById(id).flatMap(detail -> {
+            if (detail.getTotalReviews() != null) {
+                return Mono.just(detail);
+            }
+            // Written before the latest reviews were kept, fall back to the full document
+            return restaurantRepository.findById(id).map(restaurant -> {
+                restaurantDetails.updateLatestReviews(restaurant);
+                return restaurant;
+            });
+        });
+    }
+}
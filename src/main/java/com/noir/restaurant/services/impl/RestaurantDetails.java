@@ -0,0 +1,52 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.repositories.RestaurantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * The detail response carries the newest few reviews and a count instead of every review. Both
+ * are stored on the restaurant and rewritten whenever its reviews change, so a detail read asks
+ * Elasticsearch for the document without the review list.
+ */
+@Component
+@RequiredArgsConstructor
+public class RestaurantDetails {
+
+    private static final Comparator<Review> NEWEST_FIRST = Comparator
+            .comparing(Review::getDatePosted, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final RestaurantRepository restaurantRepository;
+
+    @Value("${app.reviews.latest-size:5}")
+    private int latestSize;
+
+    public Optional<Restaurant> find(String restaurantId) {
+        Optional<Restaurant> detail = restaurantRepository.findDetailById(restaurantId);
+        if (detail.isPresent() && detail.get().getTotalReviews() == null) {
+            // Written before the latest reviews were kept, fall back to the full document
+            return restaurantRepository.findById(restaurantId).map(restaurant -> {
+                updateLatestReviews(restaurant);
+                return restaurant;
+            });
+        }
+        return detail;
+    }
+
+    public void updateLatestReviews(Restaurant restaurant) {
+        List<Review> reviews = restaurant.getReviews() == null ? List.of() : restaurant.getReviews();
+        restaurant.setTotalReviews(reviews.size());
+        restaurant.setLatestReviews(new ArrayList<>(reviews.stream()
+                                                           .sorted(NEWEST_FIRST)
+                                                           .limit(latestSize)
+                                                           .toList()));
+    }
+}
@@ -2,58 +2,62 @@ package com.noir.restaurant.services.impl;
 
 import com.noir.restaurant.domain.GeoLocation;
 import com.noir.restaurant.domain.RestaurantCreateUpdateRequest;
+import com.noir.restaurant.domain.RestaurantPatchRequest;
 import com.noir.restaurant.domain.entities.Address;
 import com.noir.restaurant.domain.entities.Photo;
 import com.noir.restaurant.domain.entities.Restaurant;
 import com.noir.restaurant.exceptions.RestaurantNotFoundException;
 import com.noir.restaurant.repositories.RestaurantRepository;
 import com.noir.restaurant.services.GeoLocationService;
+import com.noir.restaurant.services.PhotoService;
 import com.noir.restaurant.services.RestaurantService;
+import com.noir.restaurant.services.RestaurantViewService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
 public class RestaurantServiceImpl implements RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
     private final GeoLocationService geoLocationService;
+    private final PhotoService photoService;
+    private final StructuredFanOut fanOut;
+    private final RestaurantViewService restaurantViewService;
+    private final RestaurantDetails restaurantDetails;
 
     @Override
     public Restaurant createRestaurant(RestaurantCreateUpdateRequest request) {
         Address address = request.getAddress();
-        GeoLocation geoLocation = geoLocationService.geoLocate(address);
-        GeoPoint geoPoint = new GeoPoint(geoLocation.getLatitude(), geoLocation.getLongitude());
 
-        List<String> photoIds = request.getPhotoIds();
-        List<Photo> photos = photoIds
-                .stream()
-                .map(photoUrl -> Photo
+        // Geocoding and photo validation are independent, so they run side by side
+        Restaurant restaurant = fanOut.join(
+                () -> geoLocationService.geoLocate(address),
+                () -> photoService.resolvePhotos(request.getPhotoIds()),
+                (geoLocation, photos) -> Restaurant
                         .builder()
-                        .url(photoUrl)
-                        .uploadDate(LocalDateTime.now())
-                        .build())
-                .toList();
-
-        Restaurant restaurant = Restaurant
-                .builder()
-                .name(request.getName())
-                .cuisineType(request.getCuisineType())
-                .contactInformation(request.getContactInformation())
-                .address(address)
-                .geoLocation(geoPoint)
-                .operatingHours(request.getOperatingHours())
-                .averageRating(0f)
-                .photos(photos)
-                .build();
-        return restaurantRepository.save(restaurant);
+                        .name(request.getName())
+                        .cuisineType(request.getCuisineType())
+                        .contactInformation(request.getContactInformation())
+                        .address(address)
+                        .geoLocation(toGeoPoint(geoLocation))
+                        .operatingHours(request.getOperatingHours())
+                        .averageRating(0f)
+                        .photos(photos)
+                        .build());
+        return saveAndRefreshView(restaurant);
     }
 
     @Override
@@ -82,27 +86,32 @@ public class RestaurantServiceImpl implements RestaurantService {
         return restaurantRepository.findById(id);
     }
 
+    @Override
+    public Optional<Restaurant> getRestaurantDetail(String id) {
+        return restaurantDetails.find(id);
+    }
+
 
     @Override
     public Restaurant updateRestaurant(String id,
                                        RestaurantCreateUpdateRequest request) {
         Restaurant restaurant = getRestaurant(id).orElseThrow(
-                () -> new RestaurantNotFoundException("Restaurant with id " + id + " not found."));
-
-        GeoLocation newGeoLocation = geoLocationService.geoLocate(
-                request.getAddress());
-        GeoPoint newGeoPoint = new GeoPoint(newGeoLocation.getLatitude(),
-                                            newGeoLocation.getLongitude());
-
-        List<String> photoIds = request.getPhotoIds();
-        List<Photo> photos = photoIds
-                .stream()
-                .map(photoUrl -> Photo
-                        .builder()
-                        .url(photoUrl)
-                        .uploadDate(LocalDateTime.now())
-                        .build())
-                .toList();
+                () -> RestaurantNotFoundException.stackless(
+                        "Restaurant with id " + id + " not found."));
+
+        // Only geocode again when the address actually moved
+        GeoPoint currentGeoPoint = restaurant.getGeoLocation();
+        boolean moved = currentGeoPoint == null
+                || !request.getAddress().equals(restaurant.getAddress());
+
+        GeoPoint newGeoPoint = fanOut.join(
+                () -> moved ? toGeoPoint(geoLocationService.geoLocate(request.getAddress()))
+                        : currentGeoPoint,
+                () -> photoService.resolvePhotos(request.getPhotoIds()),
+                (geoPoint, photos) -> {
+                    restaurant.setPhotos(photos);
+                    return geoPoint;
+                });
 
         restaurant.setName(request.getName());
         restaurant.setCuisineType(request.getCuisineType());
@@ -110,12 +119,95 @@ public class RestaurantServiceImpl implements RestaurantService {
         restaurant.setAddress(request.getAddress());
         restaurant.setGeoLocation(newGeoPoint);
         restaurant.setOperatingHours(request.getOperatingHours());
-        restaurant.setPhotos(photos);
-        return restaurantRepository.save(restaurant);
+        return saveAndRefreshView(restaurant);
+    }
+
+    @Override
+    public Restaurant patchRestaurant(String id, RestaurantPatchRequest request) {
+        // Diffed against the document without its reviews, only the fields that differ are sent
+        Restaurant current = restaurantDetails.find(id).orElseThrow(
+                () -> RestaurantNotFoundException.stackless(
+                        "Restaurant with id " + id + " not found."));
+
+        // Null fields are left out of the update, so the list the builder defaults is nulled as well
+        Restaurant changes = Restaurant.builder().latestReviews(null).build();
+        setIfChanged(request.getName(), current.getName(), changes::setName);
+        setIfChanged(request.getCuisineType(), current.getCuisineType(), changes::setCuisineType);
+        setIfChanged(request.getContactInformation(), current.getContactInformation(),
+                     changes::setContactInformation);
+        setIfChanged(request.getOperatingHours(), current.getOperatingHours(),
+                     changes::setOperatingHours);
+
+        boolean moved = request.getAddress() != null
+                && (current.getGeoLocation() == null
+                || !request.getAddress().equals(current.getAddress()));
+        boolean photosChanged = request.getPhotoIds() != null
+                && !request.getPhotoIds().equals(photoIds(current.getPhotos()));
+        if (moved || photosChanged) {
+            fanOut.join(
+                    () -> moved ? toGeoPoint(geoLocationService.geoLocate(request.getAddress())) : null,
+                    () -> photosChanged ? mergePhotos(current.getPhotos(), request.getPhotoIds()) : null,
+                    (geoPoint, photos) -> {
+                        if (moved) {
+                            changes.setAddress(request.getAddress());
+                            changes.setGeoLocation(geoPoint);
+                        }
+                        changes.setPhotos(photos);
+                        return changes;
+                    });
+        }
+
+        if (!restaurantRepository.updateFields(id, changes, current.getSeqNoPrimaryTerm())) {
+            return current;
+        }
+
+        Restaurant patched = restaurantDetails.find(id).orElseThrow(
+                () -> RestaurantNotFoundException.stackless(
+                        "Restaurant with id " + id + " not found."));
+        restaurantViewService.refresh(patched);
+        return patched;
     }
 
     @Override
     public void deleteRestaurant(String id) {
         restaurantRepository.deleteById(id);
+        restaurantViewService.evict(id);
+    }
+
+    private Restaurant saveAndRefreshView(Restaurant restaurant) {
+        restaurantDetails.updateLatestReviews(restaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantViewService.refresh(savedRestaurant);
+        return savedRestaurant;
+    }
+
+    // Photos the restaurant already has keep their upload date and metadata, only new ids are resolved
+    private List<Photo> mergePhotos(List<Photo> currentPhotos, List<String> photoIds) {
+        Map<String, Photo> photosById = new HashMap<>();
+        if (currentPhotos != null) {
+            currentPhotos.forEach(photo -> photosById.putIfAbsent(photo.getUrl(), photo));
+        }
+        List<String> newPhotoIds = photoIds.stream()
+                                           .filter(photoId -> !photosById.containsKey(photoId))
+                                           .distinct()
+                                           .toList();
+        if (!newPhotoIds.isEmpty()) {
+            photoService.resolvePhotos(newPhotoIds).forEach(photo -> photosById.put(photo.getUrl(), photo));
+        }
+        return photoIds.stream().map(photosById::get).collect(Collectors.toList());
+    }
+
+    private static List<String> photoIds(List<Photo> photos) {
+        return photos == null ? List.of() : photos.stream().map(Photo::getUrl).toList();
+    }
+
+    private static <T> void setIfChanged(T requested, T current, Consumer<T> setter) {
+        if (requested != null && !requested.equals(current)) {
+            setter.accept(requested);
+        }
+    }
+
+    private static GeoPoint toGeoPoint(GeoLocation geoLocation) {
+        return new GeoPoint(geoLocation.getLatitude(), geoLocation.getLongitude());
     }
 }
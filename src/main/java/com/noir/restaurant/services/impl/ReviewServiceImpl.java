@@ -8,7 +8,10 @@ import com.noir.restaurant.domain.entities.User;
 import com.noir.restaurant.exceptions.RestaurantNotFoundException;
 import com.noir.restaurant.exceptions.ReviewNotAllowedException;
 import com.noir.restaurant.repositories.RestaurantRepository;
+import com.noir.restaurant.services.PhotoService;
+import com.noir.restaurant.services.RestaurantViewService;
 import com.noir.restaurant.services.ReviewService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -21,10 +24,15 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
 
     private final RestaurantRepository restaurantRepository;
+    private final PhotoService photoService;
+    private final StructuredFanOut fanOut;
+    private final RestaurantViewService restaurantViewService;
+    private final RestaurantDetails restaurantDetails;
 
     private static Optional<Review> getReviewFromRestaurant(String reviewId,
                                                             Restaurant restaurant) {
@@ -33,7 +41,8 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public Review createReview(User author, String restaurantId, ReviewCreateUpdateRequest review) {
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
+        ReviewTarget target = loadReviewTarget(restaurantId, review);
+        Restaurant restaurant = target.restaurant();
 
         boolean hasExistingReview = restaurant
                 .getReviews()
@@ -41,24 +50,18 @@ public class ReviewServiceImpl implements ReviewService {
                 .anyMatch(r -> r.getWrittenBy().getId().equals(author.getId()));
 
         if (hasExistingReview) {
-            throw new ReviewNotAllowedException(
-                    "User has already written a review for this restaurant.");
+            throw ReviewNotAllowedException.ALREADY_REVIEWED;
         }
 
         LocalDateTime now = LocalDateTime.now();
 
-        List<Photo> photos = review.getPhotoIds().stream().map(url -> Photo.builder()
-                                                                           .url(url)
-                                                                           .uploadDate(now)
-                                                                           .build()).toList();
-
         String reviewId = UUID.randomUUID().toString();
 
         Review reviewToCreate = Review.builder()
                                       .id(reviewId)
                                       .content(review.getContent())
                                       .rating(review.getRating())
-                                      .photos(photos)
+                                      .photos(target.photos())
                                       .datePosted(now)
                                       .lastEdited(now)
                                       .writtenBy(author)
@@ -68,7 +71,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         updateRestaurantAverageRating(restaurant);
 
-        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant = saveAndRefreshView(restaurant);
 
         return savedRestaurant
                 .getReviews()
@@ -80,7 +83,11 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public Page<Review> listReviews(String restaurantId, Pageable pageable) {
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
+        return listReviews(getRestaurantOrThrow(restaurantId), pageable);
+    }
+
+    @Override
+    public Page<Review> listReviews(Restaurant restaurant, Pageable pageable) {
         List<Review> reviews = restaurant.getReviews();
 
         Sort sort = pageable.getSort();
@@ -113,39 +120,37 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public Optional<Review> getReview(String restaurantId, String reviewId) {
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
+        return getReview(getRestaurantOrThrow(restaurantId), reviewId);
+    }
+
+    @Override
+    public Optional<Review> getReview(Restaurant restaurant, String reviewId) {
         return getReviewFromRestaurant(reviewId, restaurant);
     }
 
     @Override
     public Review updateReview(User author, String restaurantId, String reviewId,
                                ReviewCreateUpdateRequest review) {
-        Restaurant restaurant = getRestaurantOrThrow(restaurantId);
+        ReviewTarget target = loadReviewTarget(restaurantId, review);
+        Restaurant restaurant = target.restaurant();
 
         String authorId = author.getId();
 
         Review existingReview = getReviewFromRestaurant(reviewId, restaurant).orElseThrow(
-                () -> new ReviewNotAllowedException("Review does not exist"));
+                () -> ReviewNotAllowedException.REVIEW_NOT_FOUND);
 
         if (!existingReview.getWrittenBy().getId().equals(authorId)) {
-            throw new ReviewNotAllowedException("Cannot update another user's review.");
+            throw ReviewNotAllowedException.NOT_AUTHOR_OF_UPDATE;
         }
 
         if (LocalDateTime.now().isAfter(existingReview.getDatePosted().plusHours(48))) {
-            throw new ReviewNotAllowedException("Review can no longer be updated.");
+            throw ReviewNotAllowedException.EDIT_WINDOW_CLOSED;
         }
 
         existingReview.setContent(review.getContent());
         existingReview.setRating(review.getRating());
         existingReview.setLastEdited(LocalDateTime.now());
-        existingReview.setPhotos(review.getPhotoIds()
-                                       .stream()
-                                       .map(photoId -> Photo
-                                               .builder()
-                                               .url(photoId)
-                                               .uploadDate(LocalDateTime.now())
-                                               .build())
-                                       .toList());
+        existingReview.setPhotos(target.photos());
 
         List<Review> updatedReviews = restaurant
                 .getReviews()
@@ -158,7 +163,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         updateRestaurantAverageRating(restaurant);
 
-        restaurantRepository.save(restaurant);
+        saveAndRefreshView(restaurant);
 
         return existingReview;
     }
@@ -168,10 +173,10 @@ public class ReviewServiceImpl implements ReviewService {
         Restaurant restaurant = getRestaurantOrThrow(restaurantId);
 
         Review existingReview = getReviewFromRestaurant(reviewId, restaurant).orElseThrow(
-                () -> new ReviewNotAllowedException("Review does not exist"));
+                () -> ReviewNotAllowedException.REVIEW_NOT_FOUND);
 
         if (!existingReview.getWrittenBy().getId().equals(author.getId())) {
-            throw new ReviewNotAllowedException("Cannot delete another user's review.");
+            throw ReviewNotAllowedException.NOT_AUTHOR_OF_DELETE;
         }
 
         List<Review> filteredReviews = restaurant
@@ -184,17 +189,32 @@ public class ReviewServiceImpl implements ReviewService {
 
         updateRestaurantAverageRating(restaurant);
 
-        restaurantRepository.save(restaurant);
+        saveAndRefreshView(restaurant);
+    }
+
+    // The restaurant and the review photos are looked up side by side
+    private ReviewTarget loadReviewTarget(String restaurantId, ReviewCreateUpdateRequest review) {
+        return fanOut.join(() -> getRestaurantOrThrow(restaurantId),
+                           () -> photoService.resolvePhotos(review.getPhotoIds()),
+                           ReviewTarget::new);
+    }
+
+    private Restaurant saveAndRefreshView(Restaurant restaurant) {
+        restaurantDetails.updateLatestReviews(restaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantViewService.refresh(savedRestaurant);
+        return savedRestaurant;
     }
 
     private Restaurant getRestaurantOrThrow(String restaurantId) {
         return restaurantRepository
                 .findById(restaurantId)
-                .orElseThrow(() -> new RestaurantNotFoundException(
+                .orElseThrow(() -> RestaurantNotFoundException.stackless(
                         "Restaurant with id " + restaurantId + " not found."));
     }
 
-    private void updateRestaurantAverageRating(Restaurant restaurant) {
+    // Package-private so the benchmarks can call it directly
+    void updateRestaurantAverageRating(Restaurant restaurant) {
         List<Review> reviews = restaurant.getReviews();
         if (reviews.isEmpty()) {
             restaurant.setAverageRating(0.0f);
@@ -207,4 +227,7 @@ public class ReviewServiceImpl implements ReviewService {
             restaurant.setAverageRating((float) averageRating);
         }
     }
+
+    private record ReviewTarget(Restaurant restaurant, List<Photo> photos) {
+    }
 }
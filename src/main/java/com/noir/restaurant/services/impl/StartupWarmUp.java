@@ -0,0 +1,229 @@
+package com.noir.restaurant.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.mappers.RestaurantMapper;
+import com.noir.restaurant.repositories.RestaurantRepository;
+import com.noir.restaurant.services.PhotoCacheService;
+import com.noir.restaurant.services.RestaurantService;
+import com.noir.restaurant.services.RestaurantViewService;
+import com.noir.restaurant.services.StorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Runs before the application reports ready: opens Elasticsearch connections, replays
+ * representative searches and detail reads until the JIT has seen the hot paths, and reads the
+ * photos those results show so they sit in the photo cache and the OS page cache. Off unless
+ * app.warmup.enabled is set, since it delays readiness by up to app.warmup.max-duration.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Profile("!datagen")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class StartupWarmUp implements ApplicationRunner {
+
+    private final RestaurantService restaurantService;
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantViewService restaurantViewService;
+    private final RestaurantMapper restaurantMapper;
+    private final ObjectMapper objectMapper;
+    private final PhotoCacheService photoCacheService;
+    private final StorageService storageService;
+    private final MeterRegistry meterRegistry;
+
+    // Query strings as the search endpoint takes them
+    @Value("${app.warmup.searches:q=pizza,q=italian,q=sushi,minRating=4,latitude=51.51&longitude=-0.13&radius=2,page=1}")
+    private List<String> searches;
+
+    @Value("${app.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${app.warmup.max-duration:45s}")
+    private Duration maxDuration;
+
+    @Value("${app.warmup.details-per-search:5}")
+    private int detailsPerSearch;
+
+    @Value("${app.warmup.photos:50}")
+    private int photos;
+
+    @Value("${app.warmup.connections:16}")
+    private int connections;
+
+    private final AtomicLong durationNanos = new AtomicLong();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TimeGauge.builder("app.warmup.duration", durationNanos, TimeUnit.NANOSECONDS, AtomicLong::doubleValue)
+                 .description("Time spent warming up before the application reported ready")
+                 .register(meterRegistry);
+
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + maxDuration.toNanos();
+        try {
+            openConnections();
+
+            Set<String> restaurantIds = new LinkedHashSet<>();
+            Set<String> photoNames = new LinkedHashSet<>();
+            long firstPassNanos = 0;
+            long lastPassNanos = 0;
+            int passes = 0;
+            while (passes < iterations && System.nanoTime() < deadline) {
+                long passStartedAt = System.nanoTime();
+                replay(restaurantIds, photoNames);
+                lastPassNanos = System.nanoTime() - passStartedAt;
+                if (passes++ == 0) {
+                    firstPassNanos = lastPassNanos;
+                }
+            }
+
+            int photosRead = readPhotos(photoNames);
+
+            durationNanos.set(System.nanoTime() - startedAt);
+            log.info("Warm-up finished in {} ms: {} passes over {} searches and {} restaurants, "
+                             + "{} photos read, first pass {} ms, last pass {} ms",
+                     TimeUnit.NANOSECONDS.toMillis(durationNanos.get()), passes, searches.size(),
+                     restaurantIds.size(), photosRead, TimeUnit.NANOSECONDS.toMillis(firstPassNanos),
+                     TimeUnit.NANOSECONDS.toMillis(lastPassNanos));
+        } catch (RuntimeException e) {
+            // A cold instance is better than one that never becomes ready
+            durationNanos.set(System.nanoTime() - startedAt);
+            log.warn("Warm-up failed after {} ms, continuing cold",
+                     TimeUnit.NANOSECONDS.toMillis(durationNanos.get()), e);
+        }
+    }
+
+    // Concurrent round trips make the client open that many pooled connections up front
+    private void openConnections() {
+        List<Future<Long>> counts = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                counts.add(executor.submit(restaurantRepository::count));
+            }
+        }
+
+        // Closing the executor waited for every round trip, so each one has an outcome by now
+        for (Future<Long> count : counts) {
+            if (count.state() == Future.State.FAILED) {
+                throw new IllegalStateException("Warm-up connection failed", count.exceptionNow());
+            }
+        }
+    }
+
+    // Same work the search and detail endpoints do, minus the HTTP layer and admission control
+    private void replay(Set<String> restaurantIds, Set<String> photoNames) {
+        for (String search : searches) {
+            MultiValueMap<String, String> parameters = UriComponentsBuilder
+                    .fromUriString("?" + search)
+                    .build()
+                    .getQueryParams();
+
+            Page<Restaurant> results = restaurantService.searchRestaurants(
+                    parameters.getFirst("q"),
+                    floatParameter(parameters, "minRating"),
+                    floatParameter(parameters, "latitude"),
+                    floatParameter(parameters, "longitude"),
+                    floatParameter(parameters, "radius"),
+                    PageRequest.of(intParameter(parameters, "page", 1) - 1,
+                                   intParameter(parameters, "size", 20)));
+            serialize(results.map(restaurantMapper::toSummaryDto));
+
+            results.stream().limit(detailsPerSearch).forEach(restaurant -> {
+                restaurantIds.add(restaurant.getId());
+                if (restaurant.getPhotos() != null) {
+                    restaurant.getPhotos().stream().map(Photo::getUrl).findFirst().ifPresent(photoNames::add);
+                }
+            });
+        }
+
+        for (String restaurantId : restaurantIds) {
+            if (restaurantViewService.isEnabled()) {
+                restaurantViewService.getView(restaurantId);
+            } else {
+                restaurantService.getRestaurantDetail(restaurantId)
+                                 .map(restaurantMapper::toRestaurantDto)
+                                 .ifPresent(this::serialize);
+            }
+        }
+    }
+
+    // Photos shown by the warm-up results first, then the newest uploads
+    private int readPhotos(Set<String> photoNames) {
+        List<String> toRead = new ArrayList<>(photoNames);
+        if (toRead.size() < photos) {
+            storageService.listNewestFileNames(photos)
+                          .stream()
+                          .filter(fileName -> !photoNames.contains(fileName))
+                          .limit(photos - toRead.size())
+                          .forEach(toRead::add);
+        }
+
+        int read = 0;
+        for (String fileName : toRead.subList(0, Math.min(photos, toRead.size()))) {
+            Resource photo = photoCacheService.getPhotoAsResource(fileName).orElse(null);
+            if (photo == null) {
+                continue;
+            }
+            try (InputStream inputStream = photo.getInputStream()) {
+                inputStream.transferTo(OutputStream.nullOutputStream());
+                read++;
+            } catch (IOException e) {
+                log.debug("Could not read photo during warm-up: {}", fileName, e);
+            }
+        }
+        return read;
+    }
+
+    private void serialize(Object body) {
+        try {
+            objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize warm-up response", e);
+        }
+    }
+
+    private static Float floatParameter(MultiValueMap<String, String> parameters, String name) {
+        String value = parameters.getFirst(name);
+        return value == null ? null : Float.valueOf(value);
+    }
+
+    private static int intParameter(MultiValueMap<String, String> parameters, String name,
+                                    int defaultValue) {
+        String value = parameters.getFirst(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,104 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.exceptions.LookupTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/*
+ * Runs independent lookups side by side on virtual threads, scoped to the calling method. The
+ * first failure or the deadline interrupts the remaining subtasks, and the caller gets its
+ * exception straight away instead of waiting for them: a lookup that ignores interrupts finishes
+ * in the background and its result is dropped. StructuredTaskScope gives the same shape but is
+ * still a preview API on Java 21, and its close() would wait for such a lookup.
+ */
+@Component
+public class StructuredFanOut {
+
+    @Value("${app.fan-out.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.fan-out.timeout:5s}")
+    private Duration timeout;
+
+    public <T, U, R> R join(Callable<T> first, Callable<U> second,
+                            BiFunction<? super T, ? super U, ? extends R> combiner) {
+        List<Object> results = all(List.<Callable<Object>>of(first::call, second::call));
+        @SuppressWarnings("unchecked") T firstResult = (T) results.get(0);
+        @SuppressWarnings("unchecked") U secondResult = (U) results.get(1);
+        return combiner.apply(firstResult, secondResult);
+    }
+
+    public <T> List<T> all(List<Callable<T>> tasks) {
+        if (!enabled || tasks.size() < 2) {
+            return runInline(tasks);
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        // Not try-with-resources, close() would wait for stragglers past the deadline
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(completion.submit(task));
+            }
+
+            for (int i = 0; i < tasks.size(); i++) {
+                Future<T> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new LookupTimeoutException("Lookups did not complete within " + timeout);
+                }
+                done.get();
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LookupTimeoutException("Interrupted while waiting for lookups", e);
+        } finally {
+            // A no-op when everything succeeded, otherwise interrupts the stragglers
+            executor.shutdownNow();
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(future.resultNow());
+        }
+        return results;
+    }
+
+    private <T> List<T> runInline(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            try {
+                results.add(task.call());
+            } catch (Exception e) {
+                throw unwrap(e);
+            }
+        }
+        return results;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,170 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Fills the restaurant index with a reproducible synthetic data set, then exits:
+ *
+ *   java -jar restaurant.jar --spring.profiles.active=datagen --app.datagen.restaurants=300000
+ *
+ * Batches are generated and sent as parallel _bulk requests. With app.datagen.ndjson-dir set they
+ * are written as _bulk bodies instead, ready to replay with
+ * curl -H 'Content-Type: application/x-ndjson' --data-binary @restaurants-000000.ndjson .../_bulk
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Profile("datagen")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ConfigurableApplicationContext applicationContext;
+    private final RestaurantDetails restaurantDetails;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Value("${app.datagen.restaurants:300000}")
+    private long restaurants;
+
+    // With an exponent of 1.5 the mean is about 75 reviews and a third of restaurants have none
+    @Value("${app.datagen.max-reviews:10000}")
+    private int maxReviews;
+
+    @Value("${app.datagen.review-exponent:1.5}")
+    private double reviewExponent;
+
+    @Value("${app.datagen.photos:5000}")
+    private int photoPool;
+
+    @Value("${app.datagen.users:2000000}")
+    private long userPool;
+
+    @Value("${app.datagen.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.datagen.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.datagen.ndjson-dir:}")
+    private String ndjsonDir;
+
+    @Override
+    public void run(String... args) throws Exception {
+        SyntheticRestaurantFactory factory = new SyntheticRestaurantFactory(
+                seed, maxReviews, reviewExponent, photoPool, userPool);
+        IndexCoordinates index = elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class);
+        Path ndjsonDirectory = ndjsonDir.isBlank() ? null : Files.createDirectories(Paths.get(ndjsonDir));
+
+        log.info("Generating {} restaurants with seed {} into {}", restaurants, seed,
+                 ndjsonDirectory == null ? "index " + index.getIndexName() : ndjsonDirectory);
+
+        long startedAt = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+        AtomicLong reviews = new AtomicLong();
+
+        // Generation happens inside each task, so memory is bounded by parallelism x batch size
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> batches = new ArrayList<>();
+            for (long from = 0, batch = 0; from < restaurants; from += batchSize, batch++) {
+                long batchStart = from;
+                long batchEnd = Math.min(from + batchSize, restaurants);
+                long batchNumber = batch;
+                batches.add(workers.submit(() -> {
+                    List<Restaurant> generated = new ArrayList<>((int) (batchEnd - batchStart));
+                    for (long i = batchStart; i < batchEnd; i++) {
+                        Restaurant restaurant = factory.create(i);
+                        restaurantDetails.updateLatestReviews(restaurant);
+                        generated.add(restaurant);
+                    }
+
+                    if (ndjsonDirectory == null) {
+                        bulkIndex(generated, index);
+                    } else {
+                        writeNdjson(generated, index, ndjsonDirectory.resolve(
+                                String.format("restaurants-%06d.ndjson", batchNumber)));
+                    }
+
+                    reviews.addAndGet(generated.stream().mapToLong(r -> r.getReviews().size()).sum());
+                    long total = written.addAndGet(generated.size());
+                    if (total / batchSize % 50 == 0) {
+                        log.info("Generated {} of {} restaurants", total, restaurants);
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (ndjsonDirectory == null) {
+            elasticsearchOperations.indexOps(index).refresh();
+        }
+
+        Duration took = Duration.ofNanos(System.nanoTime() - startedAt);
+        log.info("Generated {} restaurants and {} reviews in {} s ({} restaurants/s)",
+                 written.get(), reviews.get(), took.toSeconds(),
+                 written.get() * 1000 / Math.max(1, took.toMillis()));
+
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private void bulkIndex(List<Restaurant> generated, IndexCoordinates index) {
+        List<IndexQuery> queries = generated
+                .stream()
+                .map(restaurant -> new IndexQueryBuilder()
+                        .withId(restaurant.getId())
+                        .withObject(restaurant)
+                        .build())
+                .toList();
+        elasticsearchOperations.bulkIndex(queries, index);
+    }
+
+    // Same source the bulk path would send, rendered by the entity converter
+    private void writeNdjson(List<Restaurant> generated, IndexCoordinates index, Path file)
+            throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Restaurant restaurant : generated) {
+                writer.write("{\"index\":{\"_index\":\"" + index.getIndexName() + "\",\"_id\":\""
+                                     + restaurant.getId() + "\"}}");
+                writer.newLine();
+                writer.write(elasticsearchOperations
+                                     .getElasticsearchConverter()
+                                     .mapObject(restaurant)
+                                     .toJson());
+                writer.newLine();
+            }
+        }
+    }
+}
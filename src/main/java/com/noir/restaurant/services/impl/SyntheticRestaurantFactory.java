@@ -0,0 +1,237 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.domain.entities.OperatingHours;
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.domain.entities.TimeRange;
+import com.noir.restaurant.domain.entities.User;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/*
+ * Builds restaurant number i from the seed alone, so any slice of the data set can be generated on
+ * any thread and a rerun with the same seed produces identical documents and ids.
+ */
+final class SyntheticRestaurantFactory {
+
+    private static final String[] CUISINES = {
+            "Italian", "Indian", "Chinese", "British", "Japanese", "Thai", "French", "Turkish",
+            "Mexican", "Greek", "Lebanese", "Korean", "Vietnamese", "Spanish", "Caribbean"};
+    // Roughly how common each cuisine is, same order as CUISINES
+    private static final double[] CUISINE_WEIGHTS = {
+            14, 13, 11, 10, 8, 7, 6, 6, 5, 5, 4, 3, 3, 3, 2};
+
+    private static final String[] NAME_PREFIXES = {
+            "The Golden", "Little", "Old", "The Royal", "Blue", "Red", "The Hungry", "Silver",
+            "Rustic", "The Crooked", "Green", "Lucky"};
+    private static final String[] NAME_NOUNS = {
+            "Dragon", "Olive", "Lantern", "Fox", "Kitchen", "Table", "Garden", "Spoon", "Pavilion",
+            "House", "Oak", "Harbour", "Anchor", "Lotus"};
+    private static final String[] STREETS = {
+            "High Street", "Station Road", "Church Street", "Market Street", "King Street",
+            "Queen's Road", "Mill Lane", "Victoria Road", "Park Road", "London Road"};
+    private static final String[] REVIEW_PHRASES = {
+            "Lovely food and friendly staff.", "Portions were generous.", "A bit pricey for what it is.",
+            "Service was slow on a busy night.", "Will definitely come back.", "Great for groups.",
+            "The desserts are the highlight.", "Booking ahead is a must at weekends."};
+
+    private static final Cluster[] CLUSTERS = {
+            new Cluster("W1D", 51.5136, -0.1318, 18),
+            new Cluster("E1", 51.5246, -0.0781, 14),
+            new Cluster("NW1", 51.5390, -0.1426, 10),
+            new Cluster("SW9", 51.4627, -0.1145, 9),
+            new Cluster("E14", 51.5054, -0.0235, 8),
+            new Cluster("SW7", 51.4975, -0.1757, 8),
+            new Cluster("N1", 51.5362, -0.1033, 8),
+            new Cluster("SE1", 51.5045, -0.0865, 10),
+            new Cluster("W11", 51.5150, -0.2050, 7),
+            new Cluster("SW11", 51.4646, -0.1630, 8)};
+
+    private static final LocalDateTime FIRST_REVIEW = LocalDateTime.of(2015, 1, 1, 0, 0);
+    private static final long REVIEW_WINDOW_MINUTES = 10L * 365 * 24 * 60;
+    private static final char[] INWARD_LETTERS = "ABDEFGHJLNPQRSTUWXYZ".toCharArray();
+
+    private final long seed;
+    private final int photoPool;
+    private final long userPool;
+    private final double[] reviewCountCdf;
+    private final double[] cuisineCdf;
+    private final double[] clusterCdf;
+
+    SyntheticRestaurantFactory(long seed, int maxReviews, double reviewExponent, int photoPool,
+                               long userPool) {
+        this.seed = seed;
+        this.photoPool = photoPool;
+        this.userPool = Math.max(userPool, maxReviews + 1L);
+
+        // P(k reviews) falls off as 1 / (k + 1)^s: most places have a handful, a few have thousands
+        double[] zipfWeights = new double[maxReviews + 1];
+        for (int k = 0; k <= maxReviews; k++) {
+            zipfWeights[k] = 1 / Math.pow(k + 1, reviewExponent);
+        }
+        this.reviewCountCdf = cdf(zipfWeights);
+        this.cuisineCdf = cdf(CUISINE_WEIGHTS);
+        this.clusterCdf = cdf(Arrays.stream(CLUSTERS).mapToDouble(Cluster::weight).toArray());
+    }
+
+    String id(long index) {
+        return "synthetic-" + seed + "-" + index;
+    }
+
+    Restaurant create(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+
+        String cuisine = CUISINES[pick(cuisineCdf, random)];
+        Cluster cluster = CLUSTERS[pick(clusterCdf, random)];
+        // Each restaurant has an underlying quality its reviews scatter around
+        double quality = Math.clamp(3.7 + random.nextGaussian() * 0.6, 1.0, 5.0);
+
+        List<Review> reviews = reviews(random, quality);
+        double averageRating = reviews.stream().mapToInt(Review::getRating).average().orElse(0);
+
+        return Restaurant.builder()
+                         .id(id(index))
+                         .name(NAME_PREFIXES[random.nextInt(NAME_PREFIXES.length)] + " "
+                                       + NAME_NOUNS[random.nextInt(NAME_NOUNS.length)]
+                                       + (random.nextInt(3) == 0 ? " " + cuisine : ""))
+                         .cuisineType(cuisine)
+                         .contactInformation(String.format("+44 20 %04d %04d", random.nextInt(10000),
+                                                           random.nextInt(10000)))
+                         .averageRating((float) averageRating)
+                         .geoLocation(new GeoPoint(cluster.latitude() + random.nextGaussian() * 0.008,
+                                                   cluster.longitude() + random.nextGaussian() * 0.012))
+                         .address(Address.builder()
+                                         .streetNumber(String.valueOf(1 + random.nextInt(250)))
+                                         .streetName(STREETS[random.nextInt(STREETS.length)])
+                                         .city("London")
+                                         .state("Greater London")
+                                         .postalCode(cluster.outwardCode() + " " + inwardCode(random))
+                                         .country("United Kingdom")
+                                         .build())
+                         .operatingHours(operatingHours(random))
+                         .photos(photos(random, 1 + random.nextInt(5)))
+                         .reviews(reviews)
+                         .createdBy(user(random.nextLong(userPool)))
+                         .build();
+    }
+
+    private List<Review> reviews(SplittableRandom random, double quality) {
+        int count = pick(reviewCountCdf, random);
+        List<Review> reviews = new ArrayList<>(count);
+        // Consecutive user numbers from a random start, a user reviews a restaurant at most once
+        long firstUser = random.nextLong(userPool);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime posted = FIRST_REVIEW.plusMinutes(random.nextLong(REVIEW_WINDOW_MINUTES));
+            int rating = Math.clamp(Math.round(quality + random.nextGaussian() * 0.9), 1, 5);
+            reviews.add(Review.builder()
+                              .id(new UUID(random.nextLong(), random.nextLong()).toString())
+                              .content(REVIEW_PHRASES[random.nextInt(REVIEW_PHRASES.length)] + " "
+                                               + REVIEW_PHRASES[random.nextInt(REVIEW_PHRASES.length)])
+                              .rating(rating)
+                              .datePosted(posted)
+                              .lastEdited(random.nextInt(10) == 0 ? posted.plusHours(random.nextInt(48))
+                                                                  : posted)
+                              .photos(random.nextInt(5) == 0 ? photos(random, 1) : new ArrayList<>())
+                              .writtenBy(user((firstUser + i) % userPool))
+                              .build());
+        }
+        return reviews;
+    }
+
+    private OperatingHours operatingHours(SplittableRandom random) {
+        TimeRange weekday;
+        TimeRange weekend;
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                weekday = hours("07:00", "16:00");
+                weekend = hours("08:00", "17:00");
+            }
+            case 1 -> {
+                weekday = hours("17:00", "23:00");
+                weekend = hours("12:00", "23:30");
+            }
+            case 2 -> {
+                weekday = hours("11:00", "02:00");
+                weekend = hours("11:00", "03:00");
+            }
+            default -> {
+                weekday = hours("11:30", "22:30");
+                weekend = hours("11:30", "23:00");
+            }
+        }
+        // A quarter of places close on Mondays
+        TimeRange monday = random.nextInt(4) == 0 ? null : weekday;
+
+        return OperatingHours.builder()
+                             .monday(monday)
+                             .tuesday(weekday)
+                             .wednesday(weekday)
+                             .thursday(weekday)
+                             .friday(weekend)
+                             .saturday(weekend)
+                             .sunday(weekday)
+                             .build();
+    }
+
+    private static TimeRange hours(String openTime, String closeTime) {
+        return TimeRange.builder().openTime(openTime).closeTime(closeTime).build();
+    }
+
+    // References only, the generator does not write image files
+    private List<Photo> photos(SplittableRandom random, int count) {
+        List<Photo> photos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            photos.add(Photo.builder()
+                            .url("synthetic-" + random.nextInt(photoPool) + ".jpg")
+                            .uploadDate(FIRST_REVIEW.plusMinutes(random.nextLong(REVIEW_WINDOW_MINUTES)))
+                            .width(1024)
+                            .height(768)
+                            .build());
+        }
+        return photos;
+    }
+
+    private static User user(long number) {
+        return User.builder()
+                   .id("synthetic-user-" + number)
+                   .username("user" + number)
+                   .givenName("User")
+                   .familyName(String.valueOf(number))
+                   .build();
+    }
+
+    private static String inwardCode(SplittableRandom random) {
+        return random.nextInt(10) + ""
+                + INWARD_LETTERS[random.nextInt(INWARD_LETTERS.length)]
+                + INWARD_LETTERS[random.nextInt(INWARD_LETTERS.length)];
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cdf[i] = total;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, SplittableRandom random) {
+        int position = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(position >= 0 ? position : -position - 1, cdf.length - 1);
+    }
+
+    private record Cluster(String outwardCode, double latitude, double longitude, double weight) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.noir.restaurant.services.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// Reports virtual threads that stay pinned to their carrier, usually inside synchronized blocks or native calls
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@Lazy(false)
+@ConditionalOnProperty(name = "app.virtual-threads.pinning-diagnostics", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.noir.restaurant";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.virtual-threads.pinning-threshold:20ms}")
+    private Duration threshold;
+
+    @Value("${app.virtual-threads.pinning-stack-depth:8}")
+    private int stackDepth;
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::report);
+        recordingStream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        recordingStream.close();
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String site = stackTrace == null ? "unknown" : pinningSite(stackTrace);
+
+        Counter.builder("app.virtual-threads.pinned")
+               .description("Virtual threads pinned to their carrier longer than the threshold")
+               .tag("site", site)
+               .register(meterRegistry)
+               .increment();
+
+        log.warn("Virtual thread pinned for {} ms at {}\n{}", event.getDuration().toMillis(), site,
+                 stackTrace == null ? "" : formatFrames(stackTrace));
+    }
+
+    // The innermost application frame is the useful one, JDK frames only say that a monitor was held
+    private String pinningSite(RecordedStackTrace stackTrace) {
+        return stackTrace.getFrames()
+                         .stream()
+                         .filter(RecordedFrame::isJavaFrame)
+                         .filter(frame -> frame.getMethod().getType().getName().startsWith(APP_PACKAGE))
+                         .findFirst()
+                         .map(VirtualThreadPinningMonitor::describe)
+                         .orElse("outside application code");
+    }
+
+    private String formatFrames(RecordedStackTrace stackTrace) {
+        return stackTrace.getFrames()
+                         .stream()
+                         .limit(stackDepth)
+                         .map(frame -> "\tat " + describe(frame))
+                         .collect(Collectors.joining("\n"));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
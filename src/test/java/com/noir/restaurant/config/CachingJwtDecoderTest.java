@@ -0,0 +1,95 @@
+package com.noir.restaurant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+
+    @SuppressWarnings("unchecked")
+    private final OAuth2TokenValidator<Jwt> validator = mock(OAuth2TokenValidator.class);
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new CachingJwtDecoder(delegate, validator, 100, Duration.ofMinutes(10),
+                                        new SimpleMeterRegistry());
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", "alice"));
+        when(delegate.decode("token-b")).thenReturn(jwt("token-b", "bob"));
+        when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    }
+
+    @Test
+    void repeatedTokenIsDecodedOnce() {
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+
+        verify(delegate, times(1)).decode("token-a");
+        assertThat(second.getSubject()).isEqualTo("alice");
+        assertThat(second.getTokenValue()).isEqualTo("token-a");
+        assertThat(second.getClaims()).isEqualTo(first.getClaims());
+    }
+
+    @Test
+    void differentTokensAreCachedSeparately() {
+        decoder.decode("token-a");
+
+        assertThat(decoder.decode("token-b").getSubject()).isEqualTo("bob");
+        verify(delegate).decode("token-b");
+    }
+
+    @Test
+    void cachedTokenIsValidatedOnEveryHit() {
+        decoder.decode("token-a");
+        when(validator.validate(any())).thenReturn(
+                OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Jwt expired", null)));
+
+        assertThatThrownBy(() -> decoder.decode("token-a"))
+                .isInstanceOf(JwtValidationException.class)
+                .hasMessageContaining("Jwt expired");
+        verify(validator).validate(any());
+    }
+
+    @Test
+    void rejectedTokenIsDroppedFromTheCache() {
+        decoder.decode("token-a");
+        when(validator.validate(any())).thenReturn(
+                OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token")),
+                OAuth2TokenValidatorResult.success());
+        assertThatThrownBy(() -> decoder.decode("token-a")).isInstanceOf(JwtValidationException.class);
+
+        decoder.decode("token-a");
+
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    private static Jwt jwt(String token, String subject) {
+        Instant issuedAt = Instant.now();
+        return Jwt.withTokenValue(token)
+                  .header("alg", "RS256")
+                  .subject(subject)
+                  .issuedAt(issuedAt)
+                  .expiresAt(issuedAt.plus(Duration.ofMinutes(5)))
+                  .build();
+    }
+}
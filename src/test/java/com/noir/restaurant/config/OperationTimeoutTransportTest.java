@@ -0,0 +1,130 @@
+package com.noir.restaurant.config;
+
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.CountRequest;
+import co.elastic.clients.elasticsearch.core.CreateRequest;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryRequest;
+import co.elastic.clients.elasticsearch.core.DeleteRequest;
+import co.elastic.clients.elasticsearch.core.GetRequest;
+import co.elastic.clients.elasticsearch.core.IndexRequest;
+import co.elastic.clients.elasticsearch.core.InfoRequest;
+import co.elastic.clients.elasticsearch.core.MgetRequest;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.ScrollRequest;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryRequest;
+import co.elastic.clients.elasticsearch.core.UpdateRequest;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.rest_client.RestClientOptions;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import org.apache.http.client.config.RequestConfig;
+import org.elasticsearch.client.RequestOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OperationTimeoutTransportTest {
+
+    private static final RequestConfig SEARCH = RequestConfig.custom().setSocketTimeout(10_000).build();
+    private static final RequestConfig WRITE = RequestConfig.custom().setSocketTimeout(30_000).build();
+    private static final RequestConfig CLIENT_DEFAULT = RequestConfig.custom().setSocketTimeout(60_000).build();
+
+    private final RestClientTransport delegate = mock(RestClientTransport.class);
+
+    private OperationTimeoutTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.options()).thenReturn(new RestClientOptions(
+                RequestOptions.DEFAULT.toBuilder().setRequestConfig(CLIENT_DEFAULT).build(), false));
+        transport = new OperationTimeoutTransport(delegate, SEARCH, WRITE);
+    }
+
+    // The typed endpoints are the ones Spring Data's template goes through
+    @Test
+    void searchesGetTheSearchConfig() throws IOException {
+        for (Endpoint<?, ?, ?> endpoint : List.of(
+                SearchRequest.createSearchEndpoint(JsonData._DESERIALIZER), MsearchRequest._ENDPOINT,
+                ScrollRequest._ENDPOINT, CountRequest._ENDPOINT, GetRequest._ENDPOINT, MgetRequest._ENDPOINT,
+                OpenPointInTimeRequest._ENDPOINT)) {
+            assertThat(requestConfig(sent(endpoint, null))).as(endpoint.id()).isSameAs(SEARCH);
+        }
+    }
+
+    @Test
+    void writesGetTheWriteConfig() throws IOException {
+        for (Endpoint<?, ?, ?> endpoint : List.of(
+                IndexRequest._ENDPOINT, CreateRequest._ENDPOINT,
+                UpdateRequest.createUpdateEndpoint(JsonData._DESERIALIZER), DeleteRequest._ENDPOINT,
+                BulkRequest._ENDPOINT, UpdateByQueryRequest._ENDPOINT, DeleteByQueryRequest._ENDPOINT)) {
+            assertThat(requestConfig(sent(endpoint, null))).as(endpoint.id()).isSameAs(WRITE);
+        }
+    }
+
+    @Test
+    void unlistedEndpointsKeepTheOptionsTheyCameWith() throws IOException {
+        RestClientOptions callerOptions = callerOptions();
+
+        assertThat(sent(InfoRequest._ENDPOINT, null)).isNull();
+        assertThat(sent(InfoRequest._ENDPOINT, callerOptions)).isSameAs(callerOptions);
+    }
+
+    @Test
+    void callerOptionsSurviveEverythingButTheRequestConfig() throws IOException {
+        RestClientOptions options = (RestClientOptions) sent(CountRequest._ENDPOINT, callerOptions());
+
+        assertThat(requestConfig(options)).isSameAs(SEARCH);
+        assertThat(options.restClientRequestOptions().getHeaders())
+                .anySatisfy(header -> {
+                    assertThat(header.getName()).isEqualTo("X-Opaque-Id");
+                    assertThat(header.getValue()).isEqualTo("warm-up");
+                });
+        assertThat(options.queryParameters()).containsEntry("routing", "r1");
+    }
+
+    @Test
+    void asyncRequestsGetTheSameConfig() {
+        ArgumentCaptor<TransportOptions> options = ArgumentCaptor.forClass(TransportOptions.class);
+
+        transport.performRequestAsync(null, BulkRequest._ENDPOINT, null);
+
+        verify(delegate).performRequestAsync(any(), eq(BulkRequest._ENDPOINT), options.capture());
+        assertThat(requestConfig(options.getValue())).isSameAs(WRITE);
+    }
+
+    private TransportOptions sent(Endpoint<?, ?, ?> endpoint, TransportOptions options) throws IOException {
+        ArgumentCaptor<TransportOptions> captor = ArgumentCaptor.forClass(TransportOptions.class);
+        clearInvocations(delegate);
+        transport.performRequest(null, endpoint, options);
+        verify(delegate).performRequest(any(), eq(endpoint), captor.capture());
+        return captor.getValue();
+    }
+
+    private static RestClientOptions callerOptions() {
+        RequestOptions requestOptions = RequestOptions.DEFAULT.toBuilder()
+                                                              .setRequestConfig(CLIENT_DEFAULT)
+                                                              .addHeader("X-Opaque-Id", "warm-up")
+                                                              .build();
+        RestClientOptions.Builder builder = new RestClientOptions(requestOptions, false).toBuilder();
+        builder.setParameter("routing", "r1");
+        return builder.build();
+    }
+
+    private static RequestConfig requestConfig(TransportOptions options) {
+        return ((RestClientOptions) options).restClientRequestOptions().getRequestConfig();
+    }
+}
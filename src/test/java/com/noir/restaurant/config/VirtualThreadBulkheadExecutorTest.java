@@ -0,0 +1,59 @@
+package com.noir.restaurant.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class VirtualThreadBulkheadExecutorTest {
+
+    @Test
+    void runsUpToConcurrencyQueuesTheRestAndRejectsBeyondCapacity() throws Exception {
+        VirtualThreadBulkheadExecutor executor = new VirtualThreadBulkheadExecutor("test", 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(blocking);
+        executor.execute(blocking);
+        Future<?> queued = executor.submit(blocking);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> executor.getActive() == 2 && executor.getQueued() == 1);
+
+        assertThatThrownBy(() -> executor.execute(blocking)).isInstanceOf(TaskRejectedException.class);
+
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> executor.getActive() == 0 && executor.getQueued() == 0);
+    }
+
+    @Test
+    void cancelledTaskThatHasNotStartedNeverRuns() throws Exception {
+        VirtualThreadBulkheadExecutor executor = new VirtualThreadBulkheadExecutor("test", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Future<?> queued = executor.submit(ran::countDown);
+        queued.cancel(true);
+        release.countDown();
+
+        assertThat(ran.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    }
+}
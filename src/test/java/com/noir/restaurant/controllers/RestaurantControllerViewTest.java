@@ -0,0 +1,80 @@
+package com.noir.restaurant.controllers;
+
+import com.noir.restaurant.domain.RestaurantView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestaurantControllerViewTest {
+
+    private static final byte[] JSON = "{\"name\":\"Golden Dragon\"}".getBytes();
+    private static final byte[] GZIPPED_JSON = {0x1f, (byte) 0x8b, 8, 0};
+
+    private final RestaurantView view = RestaurantView.builder()
+                                                      .restaurantId("r1")
+                                                      .version(new SeqNoPrimaryTerm(7, 1))
+                                                      .json(JSON)
+                                                      .gzippedJson(GZIPPED_JSON)
+                                                      .build();
+
+    @Test
+    void eachEncodingHasItsOwnEtag() {
+        ResponseEntity<byte[]> identity = RestaurantController.toViewResponse(view, request(null, null));
+        ResponseEntity<byte[]> gzipped = RestaurantController.toViewResponse(view, request("gzip, br", null));
+
+        assertThat(identity.getHeaders().getETag()).isEqualTo("\"1-7\"");
+        assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(identity.getBody()).isEqualTo(JSON);
+        assertThat(gzipped.getHeaders().getETag()).isEqualTo("\"1-7-gz\"");
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getBody()).isEqualTo(GZIPPED_JSON);
+    }
+
+    @Test
+    void eitherEtagRevalidates() {
+        ResponseEntity<byte[]> gzipCopy = RestaurantController.toViewResponse(view, request(null, "\"1-7-gz\""));
+        ResponseEntity<byte[]> identityCopy = RestaurantController.toViewResponse(view, request("gzip", "\"1-7\""));
+
+        assertThat(gzipCopy.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(gzipCopy.getHeaders().getETag()).isEqualTo("\"1-7-gz\"");
+        assertThat(identityCopy.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(identityCopy.getHeaders().getETag()).isEqualTo("\"1-7\"");
+    }
+
+    @Test
+    void staleEtagGetsTheBody() {
+        ResponseEntity<byte[]> response = RestaurantController.toViewResponse(view, request("gzip", "\"1-6-gz\""));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1-7-gz\"");
+    }
+
+    @Test
+    void smallViewsOnlyHaveTheIdentityEtag() {
+        view.setGzippedJson(null);
+
+        ResponseEntity<byte[]> response = RestaurantController.toViewResponse(view, request("gzip", "\"1-7-gz\""));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1-7\"");
+        assertThat(response.getBody()).isEqualTo(JSON);
+    }
+
+    private static ServletWebRequest request(String acceptEncoding, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurants/r1");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
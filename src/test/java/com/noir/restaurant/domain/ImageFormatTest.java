@@ -0,0 +1,58 @@
+package com.noir.restaurant.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageFormatTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+    private static final byte[] GIF = ascii("GIF89a");
+    private static final byte[] WEBP = ascii("RIFF\0\0\0\0WEBP");
+
+    @Test
+    void detectsEachSupportedFormat() {
+        assertThat(ImageFormat.detect(header(PNG), PNG.length)).contains(ImageFormat.PNG);
+        assertThat(ImageFormat.detect(header(JPEG), JPEG.length)).contains(ImageFormat.JPEG);
+        assertThat(ImageFormat.detect(header(GIF), GIF.length)).contains(ImageFormat.GIF);
+        assertThat(ImageFormat.detect(header(WEBP), WEBP.length)).contains(ImageFormat.WEBP);
+    }
+
+    @Test
+    void rejectsOtherContent() {
+        byte[] executable = ascii("MZ\u0090\0\3\0\0\0\4\0\0\0");
+        byte[] wave = ascii("RIFF\0\0\0\0WAVE");
+
+        assertThat(ImageFormat.detect(header(executable), executable.length)).isEmpty();
+        assertThat(ImageFormat.detect(header(wave), wave.length)).isEmpty();
+        assertThat(ImageFormat.detect(new byte[ImageFormat.SIGNATURE_LENGTH], 0)).isEmpty();
+    }
+
+    @Test
+    void onlyLooksAtTheBytesThatWereRead() {
+        // A short read leaves the rest of the buffer from an earlier file
+        assertThat(ImageFormat.detect(header(PNG), 4)).isEmpty();
+        assertThat(ImageFormat.detect(header(JPEG), 2)).isEmpty();
+        assertThat(ImageFormat.detect(header(WEBP), 11)).isEmpty();
+    }
+
+    @Test
+    void extensionsAndContentTypes() {
+        assertThat(ImageFormat.PNG.getExtension()).isEqualTo("png");
+        assertThat(ImageFormat.JPEG.getExtension()).isEqualTo("jpg");
+        assertThat(ImageFormat.JPEG.getContentType()).isEqualTo("image/jpeg");
+        assertThat(ImageFormat.WEBP.getContentType()).isEqualTo("image/webp");
+    }
+
+    private static byte[] header(byte[] signature) {
+        return Arrays.copyOf(signature, ImageFormat.SIGNATURE_LENGTH);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.noir.restaurant.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, Duration.ofMillis(100));
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        limit.release(FAST);
+
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWhileBusyAndFast() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 5, Duration.ofMillis(100));
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire();
+        }
+
+        limit.release(FAST);
+        limit.release(FAST);
+        limit.release(FAST);
+
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void idleLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 16, Duration.ofMillis(100));
+
+        limit.tryAcquire();
+        limit.release(FAST);
+
+        assertThat(limit.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void backsOffWhenLatencyExceedsTargetButNotBelowMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 8, 16, Duration.ofMillis(1));
+
+        Thread.sleep(5);
+        limit.tryAcquire();
+        limit.release(SLOW);
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        Thread.sleep(5);
+        limit.tryAcquire();
+        limit.release(SLOW);
+        Thread.sleep(5);
+        limit.tryAcquire();
+        limit.release(SLOW);
+        assertThat(limit.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void initialLimitIsClampedToTheRange() {
+        assertThat(new AdaptiveConcurrencyLimit(100, 1, 10, Duration.ofMillis(100)).getLimit()).isEqualTo(10);
+        assertThat(new AdaptiveConcurrencyLimit(0, 2, 10, Duration.ofMillis(100)).getLimit()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,161 @@
+package com.noir.restaurant.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/*
+ * Sends requests on a fixed schedule whether or not earlier ones have finished, so a slow server
+ * cannot slow the load down and hide its own latency. Each latency is measured from the time the
+ * request was due to be sent rather than when it actually went out, which corrects for
+ * coordinated omission when the generator itself falls behind.
+ */
+final class OpenLoopLoadGenerator implements AutoCloseable {
+
+    private final HttpClient client = HttpClient
+            .newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    OpenLoopLoadGenerator add(String endpoint, int weight, Supplier<HttpRequest> request) {
+        operations.add(new Operation(endpoint, weight, request));
+        totalWeight += weight;
+        return this;
+    }
+
+    Map<String, EndpointResult> run(double requestsPerSecond, Duration duration, long seed)
+            throws InterruptedException, TimeoutException {
+        Map<String, EndpointResult> results = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            results.putIfAbsent(operation.endpoint(), new EndpointResult(operation.endpoint()));
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        AtomicLong inFlight = new AtomicLong();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long requests = (long) (requestsPerSecond * duration.toMillis() / 1000);
+        long startedAt = System.nanoTime();
+
+        for (long i = 0; i < requests; i++) {
+            long scheduledAt = startedAt + i * intervalNanos;
+            long wait;
+            while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = pick(random);
+            EndpointResult result = results.get(operation.endpoint());
+            inFlight.incrementAndGet();
+            client.sendAsync(operation.request().get(), HttpResponse.BodyHandlers.discarding())
+                  .whenComplete((response, error) -> {
+                      result.record(System.nanoTime() - scheduledAt,
+                                    error == null && response.statusCode() < 400);
+                      inFlight.decrementAndGet();
+                  });
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException(inFlight.get() + " requests still in flight");
+            }
+            Thread.sleep(10);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("No operations registered");
+    }
+
+    private record Operation(String endpoint, int weight, Supplier<HttpRequest> request) {
+    }
+
+    static final class EndpointResult {
+
+        private final String endpoint;
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder failures = new LongAdder();
+
+        private EndpointResult(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void record(long latencyNanos, boolean succeeded) {
+            latencies.recordValue(latencyNanos);
+            if (!succeeded) {
+                failures.increment();
+            }
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        long count() {
+            return latencies.getTotalCount();
+        }
+
+        long failures() {
+            return failures.sum();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1_000_000d;
+        }
+
+        String summary() {
+            return String.format("%-16s %8d requests %6d failed   p50 %8.2f ms   p99 %8.2f ms   "
+                                         + "p99.9 %8.2f ms   max %8.2f ms",
+                                 endpoint, count(), failures(), percentileMillis(50),
+                                 percentileMillis(99), percentileMillis(99.9),
+                                 latencies.getMaxValue() / 1_000_000d);
+        }
+
+        // Full distribution in HdrHistogram's .hgrm format, values in milliseconds
+        void writeDistribution(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            try (PrintStream output = new PrintStream(
+                    Files.newOutputStream(directory.resolve(endpoint + ".hgrm")))) {
+                latencies.outputPercentileDistribution(output, 1_000_000d);
+            }
+        }
+    }
+}
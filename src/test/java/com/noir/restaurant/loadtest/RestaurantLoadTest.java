@@ -0,0 +1,262 @@
+package com.noir.restaurant.loadtest;
+
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.domain.entities.User;
+import com.noir.restaurant.repositories.RestaurantRepository;
+import com.noir.restaurant.services.StorageService;
+import com.noir.restaurant.services.impl.RestaurantDetails;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Open-loop load test against the full HTTP stack, with the in-memory repository standing in for
+ * Elasticsearch so the numbers are the application's own. Only runs when asked for:
+ *
+ *   mvn test -Dtest=RestaurantLoadTest -Dloadtest=true -Dloadtest.rate=300 -Dloadtest.duration=120
+ *
+ * Percentiles are printed per endpoint and full distributions are written to target/loadtest.
+ * Setting loadtest.max-p99-ms fails the run when any endpoint's p99 goes over it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Every request comes from one client address, per-client limits would reject most of them
+        "app.admission.enabled=false",
+        "app.storage.location=target/loadtest-uploads"
+})
+@ActiveProfiles("in-memory")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class RestaurantLoadTest {
+
+    private static final String[] CUISINES = {
+            "Italian", "Indian", "Chinese", "Greek", "Mexican", "French", "Japanese", "Thai"};
+    private static final String[] SEARCH_TERMS = {
+            "italian", "indain", "chinese", "grek", "bistro", "house", "sushi", "curry"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RestaurantDetails restaurantDetails;
+
+    @Autowired
+    private StorageService storageService;
+
+    private final AtomicLong reviewers = new AtomicLong();
+
+    @Test
+    void sustainsTargetRateWithinLatencyBudget() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 60));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 15));
+        int restaurantCount = Integer.getInteger("loadtest.restaurants", 1000);
+
+        byte[] photo = syntheticPhoto();
+        List<String> photoNames = seedPhotos(photo, 20);
+        List<String> restaurantIds = seedRestaurants(restaurantCount, photoNames);
+
+        try (OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator()) {
+            generator
+                    .add("search", 50, () -> get(searchPath()))
+                    .add("detail", 30, () -> get("/api/restaurants/" + any(restaurantIds)))
+                    .add("review-write", 8, () -> postReview(any(restaurantIds)))
+                    .add("photo-read", 10, () -> get("/api/photos/" + any(photoNames)))
+                    .add("photo-upload", 2, () -> postPhoto(photo));
+
+            // Lets the JIT, caches and connection pool settle, these numbers are thrown away
+            generator.run(rate, warmup, 1);
+            Map<String, OpenLoopLoadGenerator.EndpointResult> results = generator.run(rate, duration, 2);
+
+            Path reportDirectory = Path.of("target", "loadtest");
+            System.out.printf("Load test at %.0f requests/s for %s%n", rate, duration);
+            for (OpenLoopLoadGenerator.EndpointResult result : results.values()) {
+                System.out.println(result.summary());
+                result.writeDistribution(reportDirectory);
+            }
+
+            String maxP99 = System.getProperty("loadtest.max-p99-ms");
+            for (OpenLoopLoadGenerator.EndpointResult result : results.values()) {
+                assertEquals(0, result.failures(), result.endpoint() + " had failed requests");
+                if (maxP99 != null) {
+                    assertTrue(result.percentileMillis(99) <= Double.parseDouble(maxP99),
+                               result.endpoint() + " p99 over budget: " + result.summary());
+                }
+            }
+        }
+    }
+
+    private String searchPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (random.nextInt(4)) {
+            case 0 -> "/api/restaurants?q=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+            case 1 -> "/api/restaurants?minRating=" + (1 + random.nextInt(4));
+            case 2 -> "/api/restaurants?latitude=51.5072&longitude=-0.1276&radius=" + (1 + random.nextInt(10));
+            default -> "/api/restaurants?page=" + (1 + random.nextInt(5));
+        };
+    }
+
+    // Each write comes from a new reviewer, a user may only review a restaurant once
+    private HttpRequest postReview(String restaurantId) {
+        String body = "{\"content\": \"Load test review\", \"rating\": "
+                + (1 + ThreadLocalRandom.current().nextInt(5)) + ", \"photoIds\": []}";
+        return HttpRequest.newBuilder(uri("/api/restaurants/" + restaurantId + "/reviews"))
+                          .header("Authorization", "Bearer reviewer-" + reviewers.incrementAndGet())
+                          .header("Content-Type", "application/json")
+                          .POST(HttpRequest.BodyPublishers.ofString(body))
+                          .build();
+    }
+
+    private HttpRequest postPhoto(byte[] photo) {
+        return HttpRequest.newBuilder(uri("/api/photos"))
+                          .header("Authorization", "Bearer uploader")
+                          .header("Content-Type", "image/png")
+                          .POST(HttpRequest.BodyPublishers.ofByteArray(photo))
+                          .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String any(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private List<String> seedPhotos(byte[] photo, int count) {
+        List<String> photoNames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            photoNames.add(storageService
+                                   .store(new ByteArrayInputStream(photo), "loadtest-" + i, photo.length)
+                                   .getFileName());
+        }
+        return photoNames;
+    }
+
+    private List<String> seedRestaurants(int count, List<String> photoNames) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> restaurantIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String cuisine = CUISINES[random.nextInt(CUISINES.length)];
+            List<Review> reviews = new ArrayList<>();
+            int reviewCount = random.nextInt(50);
+            for (int r = 0; r < reviewCount; r++) {
+                LocalDateTime posted = LocalDateTime.now().minusDays(random.nextInt(365));
+                reviews.add(Review.builder()
+                                  .id("seed-" + i + "-" + r)
+                                  .content("Seeded review " + r)
+                                  .rating(1 + random.nextInt(5))
+                                  .datePosted(posted)
+                                  .lastEdited(posted)
+                                  .photos(new ArrayList<>())
+                                  .writtenBy(User.builder().id("seed-user-" + r).username("seed-user-" + r).build())
+                                  .build());
+            }
+
+            Restaurant restaurant = Restaurant.builder()
+                                              .name(cuisine + " House " + i)
+                                              .cuisineType(cuisine)
+                                              .contactInformation("+44 20 7946 " + String.format("%04d", i))
+                                              .averageRating((float) reviews.stream()
+                                                                            .mapToInt(Review::getRating)
+                                                                            .average()
+                                                                            .orElse(0))
+                                              .geoLocation(new GeoPoint(51.5072 + random.nextDouble(-0.1, 0.1),
+                                                                        -0.1276 + random.nextDouble(-0.15, 0.15)))
+                                              .address(Address.builder()
+                                                              .streetNumber(String.valueOf(1 + i % 200))
+                                                              .streetName("Load Street")
+                                                              .city("London")
+                                                              .postalCode("W1D 3RH")
+                                                              .country("United Kingdom")
+                                                              .build())
+                                              .photos(new ArrayList<>(List.of(Photo.builder()
+                                                                                   .url(any(photoNames))
+                                                                                   .uploadDate(LocalDateTime.now())
+                                                                                   .build())))
+                                              .reviews(reviews)
+                                              .createdBy(User.builder().id("owner").username("owner").build())
+                                              .build();
+            restaurantDetails.updateLatestReviews(restaurant);
+            restaurantIds.add(restaurantRepository.save(restaurant).getId());
+        }
+        return restaurantIds;
+    }
+
+    // A photo big enough to exercise decoding and placeholder generation
+    private static byte[] syntheticPhoto() throws IOException {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int y = 0; y < image.getHeight(); y += 20) {
+            graphics.setColor(new Color(y % 256, (y * 3) % 256, 180));
+            graphics.fillRect(0, y, image.getWidth(), 20);
+        }
+        graphics.dispose();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    @TestConfiguration
+    static class LoadTestSecurity {
+
+        // Any bearer token is accepted and becomes the subject, there is no issuer to talk to
+        @Bean
+        @Primary
+        JwtDecoder loadTestJwtDecoder() {
+            return token -> {
+                Instant now = Instant.now();
+                return Jwt.withTokenValue(token)
+                          .header("alg", "none")
+                          .subject(token)
+                          .claim("preferred_username", token)
+                          .claim("given_name", "Load")
+                          .claim("family_name", "Test")
+                          .issuedAt(now)
+                          .expiresAt(now.plusSeconds(3600))
+                          .build();
+            };
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.noir.restaurant.mappers;
+
+import com.noir.restaurant.domain.dtos.RestaurantDto;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestaurantMapperTest {
+
+    private final RestaurantMapper restaurantMapper = new RestaurantMapperImpl();
+
+    @Test
+    void detailCarriesTheLatestReviewsUnderReviews() {
+        Restaurant restaurant = Restaurant.builder()
+                                          .id("r1")
+                                          .latestReviews(List.of(Review.builder().id("newest").build()))
+                                          .totalReviews(12)
+                                          .build();
+
+        RestaurantDto dto = restaurantMapper.toRestaurantDto(restaurant);
+
+        assertThat(dto.getReviews()).extracting("id").containsExactly("newest");
+        assertThat(dto.getTotalReviews()).isEqualTo(12);
+        assertThat(dto.getReviewsUrl()).isEqualTo("/api/restaurants/r1/reviews");
+    }
+
+    @Test
+    void builderDefaultsLatestReviewsToEmpty() {
+        assertThat(Restaurant.builder().build().getLatestReviews()).isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package com.noir.restaurant.repositories;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryRestaurantRepositoryTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    private final InMemoryRestaurantRepository repository = new InMemoryRestaurantRepository();
+
+    @Test
+    void fuzzySearchToleratesTyposAndRanksBothFieldsFirst() {
+        save("Pizza Palace", "Italian", 4f, null);
+        save("Luigi's", "Pizza", 4.5f, null);
+        save("Pizza Pizza", "Pizza", 3f, null);
+        save("Golden Dragon", "Chinese", 5f, null);
+
+        List<String> names = names(repository.findByQueryAndMinRating("piza", 0f, FIRST_PAGE).getContent());
+
+        assertThat(names).hasSize(3);
+        assertThat(names.get(0)).isEqualTo("Pizza Pizza");
+        assertThat(names).doesNotContain("Golden Dragon");
+    }
+
+    @Test
+    void fuzzySearchHonoursTheMinimumRating() {
+        save("Sushi Master", "Japanese", 4.8f, null);
+        save("Sushi Corner", "Japanese", 2.5f, null);
+
+        assertThat(names(repository.findByQueryAndMinRating("sushi", 3f, FIRST_PAGE).getContent()))
+                .containsExactly("Sushi Master");
+    }
+
+    @Test
+    void shortTermsMustMatchExactly() {
+        save("Ti Amo", "Italian", 4f, null);
+
+        assertThat(repository.findByQueryAndMinRating("to", 0f, FIRST_PAGE).getContent()).isEmpty();
+        assertThat(repository.findByQueryAndMinRating("ti", 0f, FIRST_PAGE).getContent()).hasSize(1);
+    }
+
+    @Test
+    void geoSearchReturnsRestaurantsInsideTheRadiusNearestFirst() {
+        save("Far", "Any", 4f, new GeoPoint(51.60, -0.10));
+        save("Near", "Any", 4f, new GeoPoint(51.51, -0.10));
+        save("Outside", "Any", 4f, new GeoPoint(52.50, -0.10));
+        save("Nowhere", "Any", 4f, null);
+
+        assertThat(names(repository.findByLocationNear(51.50f, -0.10f, 20f, FIRST_PAGE).getContent()))
+                .containsExactly("Near", "Far");
+    }
+
+    @Test
+    void ratingSearchReturnsHighestFirst() {
+        save("Three", "Any", 3f, null);
+        save("Five", "Any", 5f, null);
+        save("Four", "Any", 4f, null);
+
+        assertThat(names(repository.findByAverageRatingGreaterThanEqual(4f, FIRST_PAGE).getContent()))
+                .containsExactly("Five", "Four");
+    }
+
+    @Test
+    void saveWithAStaleVersionIsRejected() {
+        Restaurant restaurant = save("Golden Dragon", "Chinese", 4f, null);
+        Restaurant first = repository.findById(restaurant.getId()).orElseThrow();
+        Restaurant second = repository.findById(restaurant.getId()).orElseThrow();
+
+        first.setName("Renamed");
+        repository.save(first);
+        second.setName("Other");
+
+        assertThatThrownBy(() -> repository.save(second)).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(repository.findById(restaurant.getId()).orElseThrow().getName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void updateFieldsChecksTheVersionAndSkipsNoOps() {
+        Restaurant restaurant = save("Golden Dragon", "Chinese", 4f, null);
+        SeqNoPrimaryTerm version = restaurant.getSeqNoPrimaryTerm();
+
+        assertThat(repository.updateFields(restaurant.getId(), Restaurant.builder().name("Golden Dragon").build(),
+                                           version)).isFalse();
+        assertThat(repository.findById(restaurant.getId()).orElseThrow().getSeqNoPrimaryTerm()).isEqualTo(version);
+
+        assertThat(repository.updateFields(restaurant.getId(), Restaurant.builder().name("Renamed").build(),
+                                           version)).isTrue();
+        assertThatThrownBy(() -> repository.updateFields(
+                restaurant.getId(), Restaurant.builder().name("Again").build(), version))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void storedDocumentsAreCopies() {
+        Restaurant restaurant = save("Golden Dragon", "Chinese", 4f, null);
+
+        repository.findById(restaurant.getId()).orElseThrow().setName("Changed without saving");
+
+        assertThat(repository.findById(restaurant.getId()).orElseThrow().getName()).isEqualTo("Golden Dragon");
+    }
+
+    @Test
+    void detailReadLeavesOutReviews() {
+        Restaurant restaurant = Restaurant.builder()
+                                          .name("Golden Dragon")
+                                          .averageRating(4f)
+                                          .reviews(List.of(Review.builder().content("Great").build()))
+                                          .build();
+        repository.save(restaurant);
+
+        assertThat(repository.findDetailById(restaurant.getId()).orElseThrow().getReviews()).isEmpty();
+        assertThat(repository.findById(restaurant.getId()).orElseThrow().getReviews()).hasSize(1);
+    }
+
+    @Test
+    void searchSimilarRanksBySharedTermsAndLeavesOutTheEntity() {
+        Restaurant entity = save("Pizza Palace", "Italian", 4f, null);
+        save("Pizza Pizza", "Italian", 3f, null);
+        save("Luigi's", "Italian", 4.5f, null);
+        save("Golden Dragon", "Chinese", 5f, null);
+
+        assertThat(names(repository.searchSimilar(entity, null, FIRST_PAGE).getContent()))
+                .containsExactly("Pizza Pizza", "Luigi's");
+        assertThat(names(repository.searchSimilar(entity, new String[]{"name"}, FIRST_PAGE).getContent()))
+                .containsExactly("Pizza Pizza");
+        assertThat(repository.searchSimilar(entity, null, PageRequest.of(1, 1)).getContent()).hasSize(1);
+        assertThat(repository.searchSimilar(entity, new String[]{"reviews"}, FIRST_PAGE).getContent()).isEmpty();
+    }
+
+    private Restaurant save(String name, String cuisineType, Float averageRating, GeoPoint location) {
+        return repository.save(Restaurant.builder()
+                                         .name(name)
+                                         .cuisineType(cuisineType)
+                                         .averageRating(averageRating)
+                                         .geoLocation(location)
+                                         .build());
+    }
+
+    private static List<String> names(List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::getName).toList();
+    }
+}
@@ -0,0 +1,82 @@
+package com.noir.restaurant.repositories;
+
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.domain.entities.OperatingHours;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.TimeRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestaurantRepositoryCustomImplTest {
+
+    private RestaurantRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MappingElasticsearchConverter converter =
+                new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        ElasticsearchTemplate template = mock(ElasticsearchTemplate.class);
+        when(template.getElasticsearchConverter()).thenReturn(converter);
+        repository = new RestaurantRepositoryCustomImpl(template);
+    }
+
+    @Test
+    void partialDocumentHoldsOnlyChangedScalars() {
+        Document document = repository.partialDocument(changes().name("Renamed").build());
+
+        assertThat(document).containsOnlyKeys("name");
+    }
+
+    @Test
+    void partialDocumentSendsClearedAddressFieldsAsNull() {
+        Address address = Address.builder().streetNumber("1").streetName("High Street").build();
+
+        Document document = repository.partialDocument(changes().address(address).build());
+
+        assertThat(document).containsOnlyKeys("address");
+        assertThat(fields(document.get("address")))
+                .containsEntry("streetNumber", "1")
+                .containsEntry("unit", null)
+                .containsEntry("postalCode", null)
+                .containsKeys("streetName", "city", "state", "country");
+        assertThat(document.toJson()).contains("\"unit\":null");
+    }
+
+    @Test
+    void partialDocumentSendsClearedDaysAndTimesAsNull() {
+        OperatingHours operatingHours = OperatingHours.builder()
+                                                      .monday(TimeRange.builder().openTime("09:00").build())
+                                                      .build();
+
+        Document document = repository.partialDocument(
+                changes().operatingHours(operatingHours).build());
+
+        Map<String, Object> hours = fields(document.get("operatingHours"));
+        assertThat(hours).containsEntry("tuesday", null).containsEntry("sunday", null);
+        assertThat(fields(hours.get("monday")))
+                .containsEntry("openTime", "09:00")
+                .containsEntry("closeTime", null);
+    }
+
+    // Built the way RestaurantServiceImpl.patchRestaurant builds them
+    private static Restaurant.RestaurantBuilder changes() {
+        return Restaurant.builder().latestReviews(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> fields(Object object) {
+        assertThat(object).isInstanceOf(Map.class);
+        return (Map<String, Object>) object;
+    }
+}
@@ -0,0 +1,61 @@
+package com.noir.restaurant.services.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteBufferResourceTest {
+
+    private final ByteBuffer buffer = ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5}).asReadOnlyBuffer();
+    private final ByteBufferResource resource = new ByteBufferResource(buffer, "photo.png");
+
+    @Test
+    void describesTheCachedPhoto() {
+        assertThat(resource.exists()).isTrue();
+        assertThat(resource.contentLength()).isEqualTo(5);
+        assertThat(resource.getFilename()).isEqualTo("photo.png");
+        assertThat(resource.getDescription()).isEqualTo("Cached photo [photo.png]");
+    }
+
+    @Test
+    void streamsHaveIndependentPositions() throws IOException {
+        try (InputStream first = resource.getInputStream();
+             InputStream second = resource.getInputStream()) {
+            assertThat(first.read()).isEqualTo(1);
+            assertThat(first.read()).isEqualTo(2);
+
+            assertThat(second.readAllBytes()).containsExactly(1, 2, 3, 4, 5);
+            assertThat(first.available()).isEqualTo(3);
+            assertThat(first.readAllBytes()).containsExactly(3, 4, 5);
+        }
+
+        // Reading never moves the shared buffer
+        assertThat(buffer.position()).isZero();
+        assertThat(resource.contentLength()).isEqualTo(5);
+    }
+
+    @Test
+    void bulkReadsStopAtTheEnd() throws IOException {
+        byte[] target = new byte[8];
+        try (InputStream input = resource.getInputStream()) {
+            assertThat(input.read(target, 0, 0)).isZero();
+            assertThat(input.read(target, 1, 8 - 1)).isEqualTo(5);
+            assertThat(input.read(target, 0, 8)).isEqualTo(-1);
+            assertThat(input.read()).isEqualTo(-1);
+        }
+        assertThat(target).containsExactly(0, 1, 2, 3, 4, 5, 0, 0);
+    }
+
+    @Test
+    void highBytesAreUnsigned() throws IOException {
+        ByteBufferResource highBytes = new ByteBufferResource(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), "photo.jpg");
+
+        try (InputStream input = highBytes.getInputStream()) {
+            assertThat(input.read()).isEqualTo(0xFF);
+        }
+    }
+}
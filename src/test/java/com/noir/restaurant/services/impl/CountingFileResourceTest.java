@@ -0,0 +1,62 @@
+package com.noir.restaurant.services.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingFileResourceTest {
+
+    @TempDir
+    private Path directory;
+
+    private Counter bytesRead;
+    private CountingFileResource resource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bytesRead = new SimpleMeterRegistry().counter("app.storage.bytes");
+        resource = new CountingFileResource(Files.write(directory.resolve("photo.png"), new byte[1000]),
+                                            bytesRead);
+    }
+
+    @Test
+    void lookingUpAndMeasuringCountsNothing() throws IOException {
+        assertThat(resource.exists()).isTrue();
+        assertThat(resource.contentLength()).isEqualTo(1000);
+
+        assertThat(bytesRead.count()).isZero();
+    }
+
+    @Test
+    void countsOnlyTheBytesAStreamReads() throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            inputStream.read();
+            inputStream.readNBytes(99);
+        }
+
+        assertThat(bytesRead.count()).isEqualTo(100);
+    }
+
+    @Test
+    void countsBytesReadThroughAChannel() throws IOException {
+        try (ReadableByteChannel channel = resource.readableChannel()) {
+            ByteBuffer buffer = ByteBuffer.allocate(2048);
+            while (channel.read(buffer) >= 0) {
+                // read to the end
+            }
+        }
+
+        assertThat(bytesRead.count()).isEqualTo(1000);
+    }
+}
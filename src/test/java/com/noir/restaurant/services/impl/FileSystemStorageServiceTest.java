@@ -0,0 +1,58 @@
+package com.noir.restaurant.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileSystemStorageServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @TempDir
+    Path root;
+
+    private FileSystemStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new FileSystemStorageService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(storageService, "storageLocation", root.toString());
+        storageService.init();
+    }
+
+    @Test
+    void newestFileNamesComeNewestFirst() throws IOException {
+        photo("c.png", 30);
+        photo("a.png", 10);
+        photo("d.png", 40);
+        photo("b.png", 20);
+
+        assertThat(storageService.listNewestFileNames(2)).containsExactly("d.png", "c.png");
+        assertThat(storageService.listNewestFileNames(10)).containsExactly("d.png", "c.png", "b.png", "a.png");
+        assertThat(storageService.listNewestFileNames(0)).isEmpty();
+    }
+
+    @Test
+    void newestFileNamesSkipHiddenFilesAndDirectories() throws IOException {
+        photo("a.png", 10);
+        photo(".upload-123.tmp", 50);
+        Files.createDirectory(root.resolve("thumbnails"));
+
+        assertThat(storageService.listNewestFileNames(5)).containsExactly("a.png");
+    }
+
+    private void photo(String fileName, long minutesAfterNow) throws IOException {
+        Path file = Files.write(root.resolve(fileName), new byte[]{1});
+        Files.setLastModifiedTime(file, FileTime.from(NOW.plusSeconds(minutesAfterNow * 60)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.ImageMetadata;
+import com.noir.restaurant.services.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageIoMetadataServiceTest {
+
+    private final StorageService storageService = mock(StorageService.class);
+
+    private ImageIoMetadataService metadataService;
+
+    @BeforeEach
+    void setUp() {
+        metadataService = new ImageIoMetadataService(storageService);
+        ReflectionTestUtils.setField(metadataService, "cacheSize", 100L);
+        ReflectionTestUtils.setField(metadataService, "missTimeToLive", Duration.ofMinutes(10));
+        metadataService.init();
+    }
+
+    @Test
+    void readsDimensionsAndPlaceholderOnce() throws IOException {
+        when(storageService.loadAsResource("photo.png")).thenReturn(Optional.of(new ByteArrayResource(png(40, 20))));
+
+        Optional<ImageMetadata> first = metadataService.getMetadata("photo.png");
+        Optional<ImageMetadata> second = metadataService.getMetadata("photo.png");
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getWidth()).isEqualTo(40);
+        assertThat(first.get().getHeight()).isEqualTo(20);
+        assertThat(first.get().getPlaceholder()).startsWith("data:image/png;base64,");
+        assertThat(second).isEqualTo(first);
+        verify(storageService, times(1)).loadAsResource("photo.png");
+    }
+
+    @Test
+    void missingFilesAreCached() {
+        when(storageService.loadAsResource("missing.png")).thenReturn(Optional.empty());
+
+        assertThat(metadataService.getMetadata("missing.png")).isEmpty();
+        assertThat(metadataService.getMetadata("missing.png")).isEmpty();
+
+        verify(storageService, times(1)).loadAsResource("missing.png");
+    }
+
+    @Test
+    void unreadableFormatsAreCached() {
+        byte[] webp = "RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII);
+        when(storageService.loadAsResource("photo.webp")).thenReturn(Optional.of(new ByteArrayResource(webp)));
+
+        assertThat(metadataService.getMetadata("photo.webp")).isEmpty();
+        assertThat(metadataService.getMetadata("photo.webp")).isEmpty();
+
+        verify(storageService, times(1)).loadAsResource("photo.webp");
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.services.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OffHeapPhotoCacheServiceTest {
+
+    private final StorageService storageService = mock(StorageService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OffHeapPhotoCacheService photoCache;
+
+    @BeforeEach
+    void setUp() {
+        photoCache = new OffHeapPhotoCacheService(storageService, meterRegistry);
+        ReflectionTestUtils.setField(photoCache, "maxBytes", 100L);
+        ReflectionTestUtils.setField(photoCache, "maxEntryBytes", 40L);
+        photoCache.init();
+    }
+
+    @Test
+    void cachedPhotosAreServedWithoutStorage() throws IOException {
+        when(storageService.loadAsResource("a.png")).thenReturn(Optional.of(photo(30)));
+
+        Resource first = photoCache.getPhotoAsResource("a.png").orElseThrow();
+        Resource second = photoCache.getPhotoAsResource("a.png").orElseThrow();
+
+        assertThat(first).isInstanceOf(ByteBufferResource.class);
+        assertThat(second.getInputStream().readAllBytes()).isEqualTo(photo(30).getByteArray());
+        verify(storageService, times(1)).loadAsResource("a.png");
+    }
+
+    @Test
+    void missingPhotosTakeOneStorageLookup() {
+        when(storageService.loadAsResource("missing.png")).thenReturn(Optional.empty());
+
+        assertThat(photoCache.getPhotoAsResource("missing.png")).isEmpty();
+
+        verify(storageService, times(1)).loadAsResource("missing.png");
+    }
+
+    @Test
+    void oversizedPhotosAreServedFromTheStorageResource() {
+        ByteArrayResource large = photo(41);
+        when(storageService.loadAsResource("large.png")).thenReturn(Optional.of(large));
+
+        assertThat(photoCache.getPhotoAsResource("large.png")).containsSame(large);
+        assertThat(photoCache.getPhotoAsResource("large.png")).containsSame(large);
+
+        verify(storageService, times(2)).loadAsResource("large.png");
+        assertThat(meterRegistry.get("app.photo.cache.bytes").gauge().value()).isZero();
+    }
+
+    @Test
+    void cachedBytesStayUnderTheCap() {
+        for (int i = 0; i < 10; i++) {
+            when(storageService.loadAsResource(i + ".png")).thenReturn(Optional.of(photo(40)));
+            photoCache.getPhotoAsResource(i + ".png");
+        }
+
+        await().untilAsserted(() -> assertThat(meterRegistry.get("app.photo.cache.bytes").gauge().value())
+                .isBetween(40.0, 100.0));
+    }
+
+    @Test
+    void evictedPhotosAreReloaded() {
+        when(storageService.loadAsResource("a.png")).thenReturn(Optional.of(photo(10)));
+
+        photoCache.getPhotoAsResource("a.png");
+        photoCache.evict("a.png");
+        photoCache.getPhotoAsResource("a.png");
+
+        verify(storageService, times(2)).loadAsResource("a.png");
+    }
+
+    private static ByteArrayResource photo(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) i;
+        }
+        return new ByteArrayResource(bytes);
+    }
+}
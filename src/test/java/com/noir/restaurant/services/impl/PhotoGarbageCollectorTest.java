@@ -0,0 +1,136 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.services.PhotoCacheService;
+import com.noir.restaurant.services.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatcher;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.StringQuery;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PhotoGarbageCollectorTest {
+
+    private static final Instant OLD = Instant.parse("2020-01-01T00:00:00Z");
+
+    private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+    private final StorageService storageService = mock(StorageService.class);
+    private final PhotoCacheService photoCacheService = mock(PhotoCacheService.class);
+
+    @TempDir
+    private Path checkpointDirectory;
+
+    private PhotoGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        collector = new PhotoGarbageCollector(elasticsearchOperations, storageService, photoCacheService);
+        ReflectionTestUtils.setField(collector, "gracePeriod", Duration.ofHours(24));
+        ReflectionTestUtils.setField(collector, "pageSize", 500);
+        ReflectionTestUtils.setField(collector, "pageDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(collector, "deletesPerSecond", 1000);
+        ReflectionTestUtils.setField(collector, "checkpointFile",
+                                     checkpointDirectory.resolve(".photo-gc-checkpoint").toString());
+
+        when(elasticsearchOperations.getIndexCoordinatesFor(Restaurant.class))
+                .thenReturn(IndexCoordinates.of("restaurants"));
+        when(elasticsearchOperations.openPointInTime(any(), any())).thenReturn("pit");
+        when(storageService.getLastModified(anyString())).thenReturn(Optional.of(OLD));
+        when(storageService.delete(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void deletesOnlyOldPhotosNothingReferences() {
+        Restaurant restaurant = Restaurant.builder()
+                                          .photos(List.of(photo("restaurant.png")))
+                                          .reviews(List.of(Review.builder()
+                                                                 .photos(List.of(photo("review.png")))
+                                                                 .build()))
+                                          .build();
+        markFinds(restaurant);
+        when(storageService.listFileNames())
+                .thenReturn(List.of("new.png", "orphan.png", "restaurant.png", "review.png"));
+        when(storageService.getLastModified("new.png")).thenReturn(Optional.of(Instant.now()));
+
+        collector.collect();
+
+        verify(storageService).delete("orphan.png");
+        verify(photoCacheService).evict("orphan.png");
+        verify(storageService, never()).delete("new.png");
+        verify(storageService, never()).delete("restaurant.png");
+        verify(storageService, never()).delete("review.png");
+        assertThat(checkpointDirectory.resolve(".photo-gc-checkpoint")).doesNotExist();
+    }
+
+    @Test
+    void photoAttachedAfterTheMarkIsKept() {
+        markFinds(Restaurant.builder().build());
+        when(storageService.listFileNames()).thenReturn(List.of("attached.png", "orphan.png"));
+        when(elasticsearchOperations.count(argThat(referencing("attached.png")), eq(Restaurant.class)))
+                .thenReturn(1L);
+
+        collector.collect();
+
+        verify(storageService, never()).delete("attached.png");
+        verify(storageService).delete("orphan.png");
+    }
+
+    @Test
+    void failedMarkSkipsTheSweep() {
+        when(elasticsearchOperations.search(any(Query.class), eq(Restaurant.class)))
+                .thenThrow(new IllegalStateException("cluster unavailable"));
+
+        collector.collect();
+
+        verify(storageService, never()).listFileNames();
+        verify(storageService, never()).delete(anyString());
+        assertThat(checkpointDirectory.resolve(".photo-gc-checkpoint")).exists();
+    }
+
+    private void markFinds(Restaurant restaurant) {
+        SearchHit<Restaurant> hit = new SearchHit<>("restaurants", "1", null, 1f, new Object[]{1L},
+                                                    Map.of(), Map.of(), null, null, List.of(), restaurant);
+        when(elasticsearchOperations.search(any(Query.class), eq(Restaurant.class)))
+                .thenReturn(hits(List.of(hit)), hits(List.of()));
+    }
+
+    private static SearchHits<Restaurant> hits(List<SearchHit<Restaurant>> hits) {
+        return new SearchHitsImpl<>(hits.size(), TotalHitsRelation.EQUAL_TO, 1f, Duration.ZERO, null,
+                                    "pit", hits, null, null, null);
+    }
+
+    private static ArgumentMatcher<Query> referencing(String fileName) {
+        return query -> query instanceof StringQuery stringQuery && stringQuery.getSource().contains(fileName);
+    }
+
+    private static Photo photo(String url) {
+        return Photo.builder().url(url).build();
+    }
+}
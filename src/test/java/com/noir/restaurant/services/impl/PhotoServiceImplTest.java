@@ -0,0 +1,71 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.PhotoUploadResult;
+import com.noir.restaurant.domain.StoredFile;
+import com.noir.restaurant.exceptions.InvalidPhotoException;
+import com.noir.restaurant.services.ImageMetadataService;
+import com.noir.restaurant.services.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PhotoServiceImplTest {
+
+    private final StorageService storageService = mock(StorageService.class);
+    private final ImageMetadataService imageMetadataService = mock(ImageMetadataService.class);
+
+    private PhotoServiceImpl photoService;
+
+    @BeforeEach
+    void setUp() {
+        photoService = new PhotoServiceImpl(storageService, imageMetadataService, new StructuredFanOut());
+        ReflectionTestUtils.setField(photoService, "maxBatchSize", 20);
+        when(imageMetadataService.getMetadata(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void batchFilesAreStreamedThroughTheValidatingPath() {
+        when(storageService.store(any(InputStream.class), anyString(), eq(3L)))
+                .thenReturn(StoredFile.builder().fileName("stored.png").build());
+        when(storageService.store(any(InputStream.class), anyString(), eq(4L)))
+                .thenThrow(InvalidPhotoException.UNSUPPORTED_FORMAT);
+
+        List<PhotoUploadResult> results = photoService.uploadPhotos(List.of(
+                new MockMultipartFile("files", "good.png", "image/png", new byte[3]),
+                new MockMultipartFile("files", "bad.exe", "image/png", new byte[4])));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getPhoto().getUrl()).isEqualTo("stored.png");
+        assertThat(results.get(0).getError()).isNull();
+        assertThat(results.get(1).getFileName()).isEqualTo("bad.exe");
+        assertThat(results.get(1).getError()).isEqualTo("Unsupported image format");
+        verify(storageService, never()).store(any(MultipartFile.class), anyString());
+    }
+
+    @Test
+    void oversizedBatchIsRejected() {
+        ReflectionTestUtils.setField(photoService, "maxBatchSize", 1);
+        MockMultipartFile file = new MockMultipartFile("files", "a.png", "image/png", new byte[1]);
+
+        assertThatThrownBy(() -> photoService.uploadPhotos(List.of(file, file)))
+                .isInstanceOf(InvalidPhotoException.class);
+        verify(storageService, never()).store(any(InputStream.class), anyString(), anyLong());
+    }
+}
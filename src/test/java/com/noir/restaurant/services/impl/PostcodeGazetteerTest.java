@@ -0,0 +1,106 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.GeoLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostcodeGazetteerTest {
+
+    @TempDir
+    Path directory;
+
+    private Path gazetteerFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path csvFile = directory.resolve("postcodes.csv");
+        // Unsorted, with a header row and lines the compiler has to skip
+        Files.writeString(csvFile, String.join("\n",
+                "postcode,latitude,longitude",
+                "W1D 3RH,51.5136,-0.1318",
+                "sw1a 1aa,51.501,-0.1416",
+                "W1D,51.513,-0.132",
+                "EC1A1BB,51.5201,-0.0978",
+                "TOOLONGPOSTCODE,1,1",
+                "N1 9GU,not-a-number,0",
+                ""));
+        gazetteerFile = directory.resolve("gazetteer.bin");
+        PostcodeGazetteer.compile(csvFile, gazetteerFile);
+    }
+
+    @Test
+    void compiledFileRoundTrips() throws IOException {
+        PostcodeGazetteer gazetteer = PostcodeGazetteer.open(gazetteerFile);
+
+        assertThat(gazetteer.size()).isEqualTo(4);
+        assertThat(gazetteer.lookup("W1D 3RH")).contains(location(51.5136f, -0.1318f));
+        assertThat(gazetteer.lookup("SW1A 1AA")).contains(location(51.501f, -0.1416f));
+        assertThat(gazetteer.lookup("EC1A 1BB")).contains(location(51.5201f, -0.0978f));
+    }
+
+    @Test
+    void lookupIgnoresCaseAndSpacing() throws IOException {
+        PostcodeGazetteer gazetteer = PostcodeGazetteer.open(gazetteerFile);
+
+        assertThat(gazetteer.lookup("sw1a1aa")).contains(location(51.501f, -0.1416f));
+        assertThat(gazetteer.lookup("  Sw1A \t 1aA ")).contains(location(51.501f, -0.1416f));
+        assertThat(gazetteer.lookup("ec1a 1bb")).contains(location(51.5201f, -0.0978f));
+    }
+
+    @Test
+    void unknownPostcodeFallsBackToItsOutwardCode() throws IOException {
+        PostcodeGazetteer gazetteer = PostcodeGazetteer.open(gazetteerFile);
+
+        assertThat(gazetteer.lookup("W1D 4AA")).contains(location(51.513f, -0.132f));
+        assertThat(gazetteer.lookup("w1d")).contains(location(51.513f, -0.132f));
+    }
+
+    @Test
+    void missesAreEmpty() throws IOException {
+        PostcodeGazetteer gazetteer = PostcodeGazetteer.open(gazetteerFile);
+
+        assertThat(gazetteer.lookup("N1 9GU")).isEmpty();
+        assertThat(gazetteer.lookup("SW1A 2AA")).isEmpty();
+        assertThat(gazetteer.lookup("TOOLONGPOSTCODE")).isEmpty();
+        assertThat(gazetteer.lookup("")).isEmpty();
+        assertThat(gazetteer.lookup(null)).isEmpty();
+    }
+
+    @Test
+    void rejectsFilesWithoutTheMagic() throws IOException {
+        Path notAGazetteer = directory.resolve("photo.png");
+        Files.write(notAGazetteer, new byte[]{(byte) 0x89, 'P', 'N', 'G', 0, 0, 0, 0});
+        Path empty = Files.createFile(directory.resolve("empty.bin"));
+
+        assertThatThrownBy(() -> PostcodeGazetteer.open(notAGazetteer))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a gazetteer file");
+        assertThatThrownBy(() -> PostcodeGazetteer.open(empty))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a gazetteer file");
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        byte[] compiled = Files.readAllBytes(gazetteerFile);
+        Path truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(compiled, compiled.length - 5));
+
+        assertThatThrownBy(() -> PostcodeGazetteer.open(truncated))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Truncated gazetteer file");
+    }
+
+    private static GeoLocation location(float latitude, float longitude) {
+        return GeoLocation.builder().latitude((double) latitude).longitude((double) longitude).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.domain.entities.Review;
+import com.noir.restaurant.repositories.ReactiveRestaurantRepository;
+import com.noir.restaurant.repositories.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveRestaurantServiceImplTest {
+
+    private final ReactiveRestaurantRepository restaurantRepository = mock(ReactiveRestaurantRepository.class);
+
+    private ReactiveRestaurantServiceImpl restaurantService;
+
+    @BeforeEach
+    void setUp() {
+        RestaurantDetails restaurantDetails = new RestaurantDetails(mock(RestaurantRepository.class));
+        ReflectionTestUtils.setField(restaurantDetails, "latestSize", 1);
+        restaurantService = new ReactiveRestaurantServiceImpl(restaurantRepository, restaurantDetails);
+    }
+
+    @Test
+    void detailReadSkipsTheFullReviewList() {
+        Restaurant detail = Restaurant.builder()
+                                      .id("r1")
+                                      .totalReviews(2)
+                                      .latestReviews(List.of(review("new", 2)))
+                                      .build();
+        when(restaurantRepository.findDetailById("r1")).thenReturn(Mono.just(detail));
+
+        assertThat(restaurantService.getRestaurant("r1").block()).isSameAs(detail);
+        verify(restaurantRepository, never()).findById("r1");
+    }
+
+    @Test
+    void documentsWithoutLatestReviewsFallBackToTheFullDocument() {
+        when(restaurantRepository.findDetailById("r1"))
+                .thenReturn(Mono.just(Restaurant.builder().id("r1").build()));
+        when(restaurantRepository.findById("r1")).thenReturn(Mono.just(
+                Restaurant.builder().id("r1").reviews(List.of(review("old", 1), review("new", 2))).build()));
+
+        Restaurant restaurant = restaurantService.getRestaurant("r1").block();
+
+        assertThat(restaurant.getTotalReviews()).isEqualTo(2);
+        assertThat(restaurant.getLatestReviews()).extracting(Review::getId).containsExactly("new");
+    }
+
+    @Test
+    void missingRestaurantIsEmpty() {
+        when(restaurantRepository.findDetailById("r1")).thenReturn(Mono.empty());
+
+        assertThat(restaurantService.getRestaurant("r1").blockOptional()).isEmpty();
+    }
+
+    private static Review review(String id, int day) {
+        return Review.builder().id(id).datePosted(LocalDateTime.of(2024, 1, day, 12, 0)).build();
+    }
+}
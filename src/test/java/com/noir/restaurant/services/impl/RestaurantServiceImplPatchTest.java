@@ -0,0 +1,123 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.domain.GeoLocation;
+import com.noir.restaurant.domain.RestaurantPatchRequest;
+import com.noir.restaurant.domain.entities.Address;
+import com.noir.restaurant.domain.entities.Photo;
+import com.noir.restaurant.domain.entities.Restaurant;
+import com.noir.restaurant.repositories.InMemoryRestaurantRepository;
+import com.noir.restaurant.services.GeoLocationService;
+import com.noir.restaurant.services.PhotoService;
+import com.noir.restaurant.services.RestaurantViewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RestaurantServiceImplPatchTest {
+
+    private final InMemoryRestaurantRepository repository = new InMemoryRestaurantRepository();
+    private final GeoLocationService geoLocationService = mock(GeoLocationService.class);
+    private final PhotoService photoService = mock(PhotoService.class);
+    private final RestaurantViewService restaurantViewService = mock(RestaurantViewService.class);
+
+    private RestaurantServiceImpl restaurantService;
+    private Restaurant stored;
+
+    @BeforeEach
+    void setUp() {
+        RestaurantDetails restaurantDetails = new RestaurantDetails(repository);
+        ReflectionTestUtils.setField(restaurantDetails, "latestSize", 5);
+        restaurantService = new RestaurantServiceImpl(repository, geoLocationService, photoService,
+                                                      new StructuredFanOut(), restaurantViewService,
+                                                      restaurantDetails);
+
+        Restaurant restaurant = Restaurant.builder()
+                                          .name("Golden Dragon")
+                                          .cuisineType("Chinese")
+                                          .contactInformation("020 7946 0000")
+                                          .address(address("Unit 2"))
+                                          .geoLocation(new GeoPoint(51.5, -0.1))
+                                          .averageRating(4f)
+                                          .photos(List.of(photo("a.png")))
+                                          .build();
+        restaurantDetails.updateLatestReviews(restaurant);
+        stored = repository.save(restaurant);
+    }
+
+    @Test
+    void unchangedFieldsLeaveTheVersionAlone() {
+        Restaurant patched = restaurantService.patchRestaurant(stored.getId(), RestaurantPatchRequest
+                .builder()
+                .name("Golden Dragon")
+                .address(address("Unit 2"))
+                .photoIds(List.of("a.png"))
+                .build());
+
+        assertThat(patched.getSeqNoPrimaryTerm()).isEqualTo(stored.getSeqNoPrimaryTerm());
+        verifyNoInteractions(geoLocationService, photoService, restaurantViewService);
+    }
+
+    @Test
+    void onlyTheChangedFieldIsWritten() {
+        Restaurant patched = restaurantService.patchRestaurant(
+                stored.getId(), RestaurantPatchRequest.builder().cuisineType("Cantonese").build());
+
+        assertThat(patched.getCuisineType()).isEqualTo("Cantonese");
+        assertThat(patched.getName()).isEqualTo("Golden Dragon");
+        assertThat(patched.getAddress()).isEqualTo(address("Unit 2"));
+        assertThat(patched.getSeqNoPrimaryTerm()).isNotEqualTo(stored.getSeqNoPrimaryTerm());
+        verifyNoInteractions(geoLocationService, photoService);
+        verify(restaurantViewService).refresh(patched);
+    }
+
+    @Test
+    void aNewAddressIsGeocodedAndCanClearAField() {
+        when(geoLocationService.geoLocate(any())).thenReturn(new GeoLocation(52.0, 0.1));
+
+        Restaurant patched = restaurantService.patchRestaurant(
+                stored.getId(), RestaurantPatchRequest.builder().address(address(null)).build());
+
+        assertThat(patched.getAddress().getUnit()).isNull();
+        assertThat(patched.getAddress().getStreetName()).isEqualTo("High Street");
+        assertThat(patched.getGeoLocation()).isEqualTo(new GeoPoint(52.0, 0.1));
+    }
+
+    @Test
+    void existingPhotosAreKeptAndOnlyNewIdsResolved() {
+        Photo added = photo("b.png");
+        when(photoService.resolvePhotos(List.of("b.png"))).thenReturn(List.of(added));
+
+        Restaurant patched = restaurantService.patchRestaurant(
+                stored.getId(), RestaurantPatchRequest.builder().photoIds(List.of("b.png", "a.png")).build());
+
+        assertThat(patched.getPhotos()).containsExactly(added, stored.getPhotos().get(0));
+        verify(geoLocationService, never()).geoLocate(any());
+    }
+
+    private static Address address(String unit) {
+        return Address.builder()
+                      .streetNumber("12")
+                      .streetName("High Street")
+                      .unit(unit)
+                      .city("London")
+                      .postalCode("W1 1AA")
+                      .country("UK")
+                      .build();
+    }
+
+    private static Photo photo(String url) {
+        return Photo.builder().url(url).uploadDate(LocalDateTime.of(2024, 1, 1, 12, 0)).build();
+    }
+}
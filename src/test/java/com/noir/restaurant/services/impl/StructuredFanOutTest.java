@@ -0,0 +1,129 @@
+package com.noir.restaurant.services.impl;
+
+import com.noir.restaurant.exceptions.LookupTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StructuredFanOutTest {
+
+    @Test
+    void disabledRunsOnTheCallingThread() {
+        StructuredFanOut fanOut = fanOut(false, Duration.ofSeconds(5));
+        Thread caller = Thread.currentThread();
+
+        List<Thread> threads = fanOut.all(List.of(Thread::currentThread, Thread::currentThread));
+
+        assertThat(threads).containsExactly(caller, caller);
+    }
+
+    @Test
+    void singleTaskRunsInlineEvenWhenEnabled() {
+        StructuredFanOut fanOut = fanOut(true, Duration.ofSeconds(5));
+
+        assertThat(fanOut.all(List.of(Thread::currentThread))).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void resultsComeBackInInputOrder() {
+        StructuredFanOut fanOut = fanOut(true, Duration.ofSeconds(5));
+        CountDownLatch lastDone = new CountDownLatch(1);
+
+        // The first task finishes last
+        List<String> results = fanOut.all(List.of(
+                () -> {
+                    lastDone.await();
+                    return "first";
+                },
+                () -> "second",
+                () -> {
+                    lastDone.countDown();
+                    return "third";
+                }));
+
+        assertThat(results).containsExactly("first", "second", "third");
+        String joined = fanOut.join(() -> 1, () -> "a", (number, letter) -> number + letter);
+        assertThat(joined).isEqualTo("1a");
+    }
+
+    @Test
+    void firstFailureCancelsTheSibling() throws InterruptedException {
+        StructuredFanOut fanOut = fanOut(true, Duration.ofSeconds(30));
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        CountDownLatch siblingInterrupted = new CountDownLatch(1);
+
+        Callable<String> sibling = () -> {
+            siblingStarted.countDown();
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                siblingInterrupted.countDown();
+            }
+            return "late";
+        };
+        Callable<String> failing = () -> {
+            siblingStarted.await();
+            throw new IllegalArgumentException("bad lookup");
+        };
+
+        assertThatThrownBy(() -> fanOut.all(List.of(sibling, failing)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad lookup");
+        assertThat(siblingInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void checkedFailuresAreWrapped() {
+        StructuredFanOut fanOut = fanOut(true, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> fanOut.all(List.of(() -> "ok", () -> {
+            throw new IOException("disk");
+        }))).isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void deadlineBoundsTheWaitEvenWhenALookupIgnoresInterrupts() {
+        StructuredFanOut fanOut = fanOut(true, Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> stubborn = new AtomicReference<>();
+
+        Callable<String> ignoresInterrupts = () -> {
+            stubborn.set(Thread.currentThread());
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // keeps waiting, like a blocking call that cannot be interrupted
+                }
+            }
+            return "late";
+        };
+
+        long start = System.nanoTime();
+        try {
+            assertThatThrownBy(() -> fanOut.all(List.of(() -> "fast", ignoresInterrupts)))
+                    .isInstanceOf(LookupTimeoutException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+            assertThat(stubborn.get().isAlive()).isTrue();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static StructuredFanOut fanOut(boolean enabled, Duration timeout) {
+        StructuredFanOut fanOut = new StructuredFanOut();
+        ReflectionTestUtils.setField(fanOut, "enabled", enabled);
+        ReflectionTestUtils.setField(fanOut, "timeout", timeout);
+        return fanOut;
+    }
+}
@@ -0,0 +1,21 @@
+package com.noir.restaurant.tools;
+
+import com.noir.restaurant.services.impl.PostcodeGazetteer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/*
+ * Builds the file behind app.geocoding.gazetteer-file. Kept out of the application jar and run
+ * through the build: mvn -Pgazetteer test-compile exec:java@compile-gazetteer
+ *   -Dgazetteer.csv=postcodes.csv -Dgazetteer.file=gazetteer.bin
+ */
+public class GazetteerCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: GazetteerCompiler <postcodes.csv> <gazetteer.bin>");
+        }
+        PostcodeGazetteer.compile(Paths.get(args[0]), Paths.get(args[1]));
+    }
+}